@@ -0,0 +1,31 @@
+package com.example.samajconnectbackend.config;
+
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.mail.MailException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Mail sender that keeps messages in memory instead of talking to an SMTP server.
+ * Enabled with app.mail.transport=memory for local runs and tests.
+ */
+public class InMemoryMailSender extends JavaMailSenderImpl {
+
+    private final List<MimeMessage> sentMessages = new CopyOnWriteArrayList<>();
+
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) throws MailException {
+        sentMessages.addAll(List.of(mimeMessages));
+    }
+
+    public List<MimeMessage> getSentMessages() {
+        return new ArrayList<>(sentMessages);
+    }
+
+    public void clear() {
+        sentMessages.clear();
+    }
+}
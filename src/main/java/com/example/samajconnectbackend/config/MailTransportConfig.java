@@ -0,0 +1,18 @@
+package com.example.samajconnectbackend.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Replaces the SMTP mail sender with {@link InMemoryMailSender} when app.mail.transport=memory
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.mail.transport", havingValue = "memory")
+public class MailTransportConfig {
+
+    @Bean
+    public InMemoryMailSender javaMailSender() {
+        return new InMemoryMailSender();
+    }
+}
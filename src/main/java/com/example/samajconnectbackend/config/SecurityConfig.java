@@ -1,12 +1,17 @@
 package com.example.samajconnectbackend.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -18,6 +23,35 @@ import java.util.Arrays;
 @EnableWebSecurity
 public class SecurityConfig {
 
+    /**
+     * Actuator endpoints: health is public, everything else (metrics) needs HTTP Basic with the
+     * app.actuator credentials. Without a configured password no one can read them.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorFilterChain(HttpSecurity http,
+                                                   @Value("${app.actuator.username:metrics}") String username,
+                                                   @Value("${app.actuator.password:}") String password) throws Exception {
+        InMemoryUserDetailsManager actuatorUsers = new InMemoryUserDetailsManager();
+        if (!password.isBlank()) {
+            actuatorUsers.createUser(User.withUsername(username)
+                    .password(passwordEncoder().encode(password))
+                    .roles("ACTUATOR")
+                    .build());
+        }
+        return http
+                .securityMatcher("/actuator/**")
+                .csrf(csrf -> csrf.disable())
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .authorizeHttpRequests(auth -> auth
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                        .anyRequest().hasRole("ACTUATOR")
+                )
+                .userDetailsService(actuatorUsers)
+                .httpBasic(Customizer.withDefaults())
+                .build();
+    }
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         return http
@@ -54,7 +88,11 @@ public class SecurityConfig {
                                 "/api/family-tree/requests/**",
                                 "/api/family-tree/generation/**",
                                 "/api/family-tree/side/**",
-                                "/api/family-tree/mutual/**"
+                                "/api/family-tree/mutual/**",
+                                "/api/family-tree/path/**",
+                                "/api/family-tree/ancestors/**",
+                                "/api/family-tree/descendants/**",
+                                "/api/family-tree/inferred/**"
                         ).permitAll()
 
                         // Allow POST/PUT/DELETE if desired or secure them
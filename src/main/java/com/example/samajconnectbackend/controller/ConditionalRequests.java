@@ -0,0 +1,20 @@
+package com.example.samajconnectbackend.controller;
+
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Shared handling of conditional GETs for the JSON read endpoints
+ */
+final class ConditionalRequests {
+
+    private ConditionalRequests() {
+    }
+
+    /**
+     * True once a 304 has been written because the client's If-None-Match matches eTag; the caller then
+     * returns null. Otherwise the ETag header is set for the full response. A null eTag is never a match.
+     */
+    static boolean notModified(WebRequest webRequest, String eTag) {
+        return eTag != null && webRequest.checkNotModified(eTag);
+    }
+}
@@ -1,13 +1,26 @@
 package com.example.samajconnectbackend.controller;
 import com.example.samajconnectbackend.dto.EventDTO;
+import com.example.samajconnectbackend.dto.EventFeedResponse;
+import com.example.samajconnectbackend.dto.EventSummaryDto;
+import com.example.samajconnectbackend.dto.ImageResource;
+import com.example.samajconnectbackend.entity.ImageVariant;
+import com.example.samajconnectbackend.service.EventImageService;
 import com.example.samajconnectbackend.service.EventService;
+import com.example.samajconnectbackend.service.ResourceVersionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/events")
@@ -17,6 +30,15 @@ public class EventController {
     @Autowired
     private EventService eventService;
 
+    @Autowired
+    private EventImageService eventImageService;
+
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
      * Create a new event
      */
@@ -117,20 +139,63 @@ public class EventController {
 
     // Existing GET endpoints (keeping all your original methods)
 
+    /**
+     * Get all events of a samaj, streamed to the client as they are read. With a viewerId, each event
+     * also carries that user's reaction.
+     */
     @GetMapping("/samaj/{samajId}")
-    public ResponseEntity<Map<String, Object>> getEventsBySamajId(@PathVariable Long samajId) {
+    public ResponseEntity<StreamingResponseBody> getEventsBySamajId(
+            @PathVariable Long samajId,
+            @RequestParam(required = false) Long viewerId,
+            WebRequest webRequest) {
+        if (ConditionalRequests.notModified(webRequest, resourceVersionService.eventsOfSamaj(samajId, viewerId))) {
+            return null; // 304 Not Modified
+        }
+
+        StreamingResponseBody body = StreamingResponses.<EventDTO>jsonList(
+                objectMapper, "Events retrieved successfully", "events",
+                action -> eventService.forEachEventBySamajId(samajId, viewerId, action));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    /**
+     * Page through a samaj's events, newest first, optionally between from and to (ISO date-times).
+     * Pass the nextCursor of the previous response to get the following page.
+     */
+    @GetMapping("/samaj/{samajId}/feed")
+    public ResponseEntity<Map<String, Object>> getEventFeed(
+            @PathVariable Long samajId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
         Map<String, Object> response = new HashMap<>();
 
         try {
-            List<EventDTO> events = eventService.getEventsBySamajId(samajId);
+            if (size < 1 || size > 100) {
+                throw new IllegalArgumentException("Page size must be between 1 and 100");
+            }
+
+            EventFeedResponse feed = eventService.getEventFeed(samajId, from, to, cursor, size);
 
             response.put("success", true);
             response.put("message", "Events retrieved successfully");
-            response.put("events", events);
-            response.put("count", events.size());
+            response.put("events", feed.getEvents());
+            response.put("count", feed.getEvents().size());
+            response.put("nextCursor", feed.getNextCursor());
+            response.put("hasNext", feed.isHasNext());
 
             return ResponseEntity.ok(response);
 
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            response.put("events", null);
+
+            return ResponseEntity.badRequest().body(response);
+
         } catch (Exception e) {
             response.put("success", false);
             response.put("message", "Error retrieving events: " + e.getMessage());
@@ -145,7 +210,7 @@ public class EventController {
         Map<String, Object> response = new HashMap<>();
 
         try {
-            List<EventDTO> events = eventService.getUpcomingEventsBySamajId(samajId);
+            List<EventSummaryDto> events = eventService.getUpcomingEventsBySamajId(samajId);
 
             response.put("success", true);
             response.put("message", "Upcoming events retrieved successfully");
@@ -187,10 +252,14 @@ public class EventController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> getEventById(@PathVariable Long id) {
+    public ResponseEntity<Map<String, Object>> getEventById(@PathVariable Long id, WebRequest webRequest) {
         Map<String, Object> response = new HashMap<>();
 
         try {
+            if (ConditionalRequests.notModified(webRequest, resourceVersionService.event(id))) {
+                return null; // 304 Not Modified
+            }
+
             EventDTO event = eventService.getEventById(id);
 
             if (event != null) {
@@ -213,4 +282,27 @@ public class EventController {
             return ResponseEntity.status(500).body(response);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Get event image as binary (size = small, medium or original), with ETag/Last-Modified support
+     */
+    @GetMapping("/{id}/image")
+    public ResponseEntity<byte[]> getEventImage(
+            @PathVariable Long id,
+            @RequestParam(value = "size", defaultValue = "original") String size,
+            @RequestParam(value = "v", required = false) Long version,
+            WebRequest webRequest) {
+        ImageVariant variant;
+        try {
+            variant = ImageVariant.fromString(size);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Optional<ImageResource> image = eventImageService.loadImage(id, variant);
+        if (image.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ImageResponses.conditional(image.get(), version, webRequest);
+    }
+}
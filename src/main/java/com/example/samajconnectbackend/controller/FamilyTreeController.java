@@ -5,10 +5,13 @@ import com.example.samajconnectbackend.entity.RelationshipSide;
 import com.example.samajconnectbackend.entity.RelationshipType;
 import com.example.samajconnectbackend.service.FamilyTreeService;
 import com.example.samajconnectbackend.service.RelationshipValidationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 import java.util.List;
@@ -22,6 +25,7 @@ public class FamilyTreeController {
 
     private final FamilyTreeService familyTreeService;
     private final RelationshipValidationService validationService;
+    private final ObjectMapper objectMapper;
 
     /**
      * Get complete family tree for a user
@@ -238,6 +242,78 @@ public class FamilyTreeController {
         }
     }
 
+    /**
+     * Find how two users are related through a chain of relationships
+     */
+    @GetMapping("/path/{fromUserId}/{toUserId}")
+    public ResponseEntity<ApiResponse<KinshipPathResponse>> getKinshipPath(
+            @PathVariable Long fromUserId,
+            @PathVariable Long toUserId,
+            @RequestParam(defaultValue = "6") int maxDepth) {
+        try {
+            log.info("Finding kinship path from user {} to user {} (max depth {})", fromUserId, toUserId, maxDepth);
+
+            KinshipPathResponse path = familyTreeService.getKinshipPath(fromUserId, toUserId, maxDepth);
+            String message = path.isConnected() ? "Kinship path found" : "No kinship path found";
+            return ResponseEntity.ok(ApiResponse.success(message, path));
+        } catch (Exception e) {
+            log.error("Error finding kinship path from user {} to user {}", fromUserId, toUserId, e);
+            return ResponseEntity.internalServerError()
+                    .body(ApiResponse.error("Failed to find kinship path: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Get a user's ancestors (parents, grandparents, ...) in one response, streamed as rows are read
+     */
+    @GetMapping("/ancestors/{userId}")
+    public ResponseEntity<StreamingResponseBody> streamAncestors(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "10") int maxDepth) {
+        log.info("Streaming ancestors of user {} (max depth {})", userId, maxDepth);
+
+        StreamingResponseBody body = StreamingResponses.<LineageMemberDto>jsonList(
+                objectMapper, "Ancestors retrieved successfully", "members",
+                action -> familyTreeService.forEachAncestor(userId, maxDepth, action));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    /**
+     * Get a user's descendants (children, grandchildren, ...) in one response, streamed as rows are read
+     */
+    @GetMapping("/descendants/{userId}")
+    public ResponseEntity<StreamingResponseBody> streamDescendants(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "10") int maxDepth) {
+        log.info("Streaming descendants of user {} (max depth {})", userId, maxDepth);
+
+        StreamingResponseBody body = StreamingResponses.<LineageMemberDto>jsonList(
+                objectMapper, "Descendants retrieved successfully", "members",
+                action -> familyTreeService.forEachDescendant(userId, maxDepth, action));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    /**
+     * Get the relatives implied by a user's approved relationships
+     */
+    @GetMapping("/inferred/{userId}")
+    public ResponseEntity<ApiResponse<List<UserNodeDto>>> getInferredRelatives(@PathVariable Long userId) {
+        try {
+            log.info("Fetching inferred relatives for user: {}", userId);
+
+            List<UserNodeDto> relatives = familyTreeService.getInferredRelatives(userId);
+            return ResponseEntity.ok(ApiResponse.success("Inferred relatives retrieved successfully", relatives));
+        } catch (Exception e) {
+            log.error("Error fetching inferred relatives for user: {}", userId, e);
+            return ResponseEntity.internalServerError()
+                    .body(ApiResponse.error("Failed to retrieve inferred relatives: " + e.getMessage()));
+        }
+    }
+
     /**
      * Validate a relationship before creating
      */
@@ -0,0 +1,37 @@
+package com.example.samajconnectbackend.controller;
+
+import com.example.samajconnectbackend.dto.ImageResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared response handling for the binary image endpoints
+ */
+final class ImageResponses {
+
+    private ImageResponses() {
+    }
+
+    /**
+     * Build the response for an image, or null once a 304 has been written for a matching conditional GET
+     */
+    static ResponseEntity<byte[]> conditional(ImageResource image, Long requestedVersion, WebRequest webRequest) {
+        if (webRequest.checkNotModified(image.getETag(), image.getLastModified())) {
+            return null; // 304 Not Modified
+        }
+
+        // Versioned URLs never change content, anything else must be revalidated
+        CacheControl cacheControl = requestedVersion != null && requestedVersion == image.getLastModified()
+                ? CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable()
+                : CacheControl.noCache();
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(image.getContentType()))
+                .cacheControl(cacheControl)
+                .body(image.getData());
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.samajconnectbackend.controller;
+
+import com.example.samajconnectbackend.dto.ApiResponse;
+import com.example.samajconnectbackend.dto.BatchReactionStatsRequest;
+import com.example.samajconnectbackend.dto.EventReactionSummary;
+import com.example.samajconnectbackend.service.EventReactionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Reaction endpoints that span several events (EventReactionController is scoped to one event)
+ */
+@RestController
+@RequestMapping("/api/events/reactions")
+@CrossOrigin(origins = "*")
+public class ReactionStatsController {
+
+    private static final int MAX_BATCH_SIZE = 200;
+
+    @Autowired
+    private EventReactionService eventReactionService;
+
+    /**
+     * Reaction counts and the user's own reaction for every event of a feed page in one call
+     */
+    @PostMapping("/stats")
+    public ResponseEntity<ApiResponse> getReactionStatsForEvents(@RequestBody BatchReactionStatsRequest request) {
+        if (request.getEventIds() == null || request.getEventIds().isEmpty()) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, "eventIds is required"));
+        }
+        if (request.getEventIds().size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, "At most " + MAX_BATCH_SIZE + " events per request"));
+        }
+
+        try {
+            List<EventReactionSummary> stats =
+                    eventReactionService.getReactionStatsForEvents(request.getEventIds(), request.getUserId());
+            return ResponseEntity.ok(new ApiResponse(true, "Stats retrieved successfully", stats));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, "Failed to get stats: " + e.getMessage()));
+        }
+    }
+}
@@ -1,12 +1,14 @@
 package com.example.samajconnectbackend.controller;
 
 import com.example.samajconnectbackend.dto.*;
+import com.example.samajconnectbackend.service.ResourceVersionService;
 import com.example.samajconnectbackend.service.SamajService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/samaj")
@@ -18,11 +20,14 @@ public class SamajController {
     @Autowired
     private SamajService samajService;
 
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+
     /**
      * Get samaj by ID
      */
     @GetMapping("/{id}")
-    public ResponseEntity<CreateSamajResponse> getSamajById(@PathVariable Long id) {
+    public ResponseEntity<CreateSamajResponse> getSamajById(@PathVariable Long id, WebRequest webRequest) {
         logger.info("Fetching samaj with ID: {}", id);
 
         if (id == null || id <= 0) {
@@ -30,6 +35,10 @@ public class SamajController {
                     .body(new CreateSamajResponse(false, "Invalid samaj ID", null));
         }
 
+        if (ConditionalRequests.notModified(webRequest, resourceVersionService.samaj(id))) {
+            return null; // 304 Not Modified
+        }
+
         CreateSamajResponse response = samajService.getSamajById(id);
 
         if (response.isSuccess()) {
@@ -43,8 +52,13 @@ public class SamajController {
      * Get all available samajs
      */
     @GetMapping("/all")
-    public ResponseEntity<SamajListResponse> getAllSamajs() {
+    public ResponseEntity<SamajListResponse> getAllSamajs(WebRequest webRequest) {
         logger.info("Fetching all samajs");
+
+        if (ConditionalRequests.notModified(webRequest, resourceVersionService.allSamajs())) {
+            return null; // 304 Not Modified
+        }
+
         SamajListResponse response = samajService.getAllSamajs();
         return ResponseEntity.ok(response);
     }
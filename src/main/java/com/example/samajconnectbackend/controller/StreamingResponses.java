@@ -0,0 +1,57 @@
+package com.example.samajconnectbackend.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Shared handling for list endpoints that write their rows straight to the response
+ */
+final class StreamingResponses {
+
+    private StreamingResponses() {
+    }
+
+    /**
+     * A service call that hands each item to the action and returns how many there were
+     */
+    interface ItemSource<T> {
+        int forEach(Consumer<T> action);
+    }
+
+    /**
+     * Write {"success": true, "message": ..., listField: [...], "count": n}, serializing each item as the
+     * source produces it, so only the generator's buffer is held in memory. An error after the first
+     * bytes went out can only cut the response short; it is still logged by Spring.
+     */
+    static <T> StreamingResponseBody jsonList(ObjectMapper objectMapper, String message, String listField,
+                                              ItemSource<T> source) {
+        return outputStream -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.writeStartObject();
+                generator.writeBooleanField("success", true);
+                generator.writeStringField("message", message);
+                generator.writeArrayFieldStart(listField);
+
+                int count = source.forEach(item -> {
+                    try {
+                        generator.writeObject(item);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+
+                generator.writeEndArray();
+                generator.writeNumberField("count", count);
+                generator.writeEndObject();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+    }
+}
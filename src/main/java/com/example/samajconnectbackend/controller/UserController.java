@@ -1,14 +1,22 @@
 package com.example.samajconnectbackend.controller;
 
 import com.example.samajconnectbackend.dto.*;
+import com.example.samajconnectbackend.entity.ImageVariant;
+import com.example.samajconnectbackend.service.ProfileImageService;
 import com.example.samajconnectbackend.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/users")
@@ -20,6 +28,12 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private ProfileImageService profileImageService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
      * Get user by ID
      */
@@ -39,6 +53,29 @@ public class UserController {
         }
     }
 
+    /**
+     * Get user profile image as binary (size = small, medium or original), with ETag/Last-Modified support
+     */
+    @GetMapping("/{userId}/avatar")
+    public ResponseEntity<byte[]> getUserAvatar(
+            @PathVariable Long userId,
+            @RequestParam(value = "size", defaultValue = "original") String size,
+            @RequestParam(value = "v", required = false) Long version,
+            WebRequest webRequest) {
+        ImageVariant variant;
+        try {
+            variant = ImageVariant.fromString(size);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Optional<ImageResource> avatar = profileImageService.loadAvatar(userId, variant);
+        if (avatar.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ImageResponses.conditional(avatar.get(), version, webRequest);
+    }
+
     /**
      * Update user profile
      */
@@ -103,6 +140,36 @@ public class UserController {
             return ResponseEntity.internalServerError().body(errorResponse);
         }
     }
+
+    /**
+     * Search-as-you-type suggestions for members of a samaj
+     */
+    @GetMapping("/samaj/{samajId}/typeahead")
+    public ResponseEntity<ApiResponse<List<TypeaheadMemberDto>>> typeaheadSamajMembers(
+            @PathVariable Long samajId,
+            @RequestParam("q") String query,
+            @RequestParam(value = "excludeUserId", required = false) Long excludeUserId,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        try {
+            if (limit < 1 || limit > 50) {
+                return ResponseEntity.badRequest().body(ApiResponse.error("Limit must be between 1 and 50"));
+            }
+
+            ApiResponse<List<TypeaheadMemberDto>> response =
+                    userService.typeaheadSamajMembers(samajId, query, excludeUserId, limit);
+
+            if (response.isSuccess()) {
+                return ResponseEntity.ok(response);
+            } else {
+                return ResponseEntity.badRequest().body(response);
+            }
+
+        } catch (Exception e) {
+            logger.error("Error in typeahead endpoint for samaj ID {}: {}", samajId, e.getMessage());
+            return ResponseEntity.internalServerError().body(
+                    ApiResponse.error("Failed to search samaj members: " + e.getMessage()));
+        }
+    }
     // Add these endpoints to your existing UserController class
 
     /**
@@ -145,6 +212,56 @@ public class UserController {
         }
     }
 
+    /**
+     * Get every member of a specific samaj in one response, streamed to the client as rows are read
+     */
+    @GetMapping("/samaj/{samajId}/members/all")
+    public ResponseEntity<StreamingResponseBody> streamAllSamajMembers(@PathVariable Long samajId) {
+        logger.info("Streaming all members for samaj: {}", samajId);
+
+        StreamingResponseBody body = StreamingResponses.<DetailedUserDto>jsonList(
+                objectMapper, "Samaj members retrieved successfully", "members",
+                action -> userService.forEachSamajMember(samajId, action));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    /**
+     * Get (or search) members of a specific samaj with cursor paging.
+     * Pass the nextCursor of the previous response to get the following page.
+     */
+    @GetMapping("/samaj/{samajId}/members/cursor")
+    public ResponseEntity<ApiResponse<SamajMembersCursorResponse>> getSamajMembersByCursor(
+            @PathVariable Long samajId,
+            @RequestParam(value = "q", required = false) String query,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            if (size < 1 || size > 100) {
+                return ResponseEntity.badRequest().body(
+                        ApiResponse.error("Page size must be between 1 and 100")
+                );
+            }
+
+            ApiResponse<SamajMembersCursorResponse> response =
+                    userService.getSamajMembersByCursor(samajId, query, cursor, size);
+
+            if (response.isSuccess()) {
+                return ResponseEntity.ok(response);
+            } else {
+                return ResponseEntity.badRequest().body(response);
+            }
+
+        } catch (Exception e) {
+            logger.error("Error in getSamajMembersByCursor endpoint for samaj ID {}: {}", samajId, e.getMessage());
+            ApiResponse<SamajMembersCursorResponse> errorResponse = ApiResponse.error(
+                    "Failed to retrieve samaj members: " + e.getMessage()
+            );
+            return ResponseEntity.internalServerError().body(errorResponse);
+        }
+    }
+
     /**
      * Search members of a specific samaj
      */
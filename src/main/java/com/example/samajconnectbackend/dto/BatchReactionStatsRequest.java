@@ -0,0 +1,33 @@
+package com.example.samajconnectbackend.dto;
+
+import java.util.List;
+
+public class BatchReactionStatsRequest {
+
+    private List<Long> eventIds;
+    private Long userId; // optional; when set, each entry includes this user's reaction
+
+    public BatchReactionStatsRequest() {
+    }
+
+    public BatchReactionStatsRequest(List<Long> eventIds, Long userId) {
+        this.eventIds = eventIds;
+        this.userId = userId;
+    }
+
+    public List<Long> getEventIds() {
+        return eventIds;
+    }
+
+    public void setEventIds(List<Long> eventIds) {
+        this.eventIds = eventIds;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+}
@@ -1,5 +1,8 @@
 package com.example.samajconnectbackend.dto;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.example.samajconnectbackend.entity.ReactionType;
 import java.time.LocalDateTime;
 import java.util.Base64;
 
@@ -17,14 +20,23 @@ public class EventDTO {
 
     private Long createdBy;
     private Long samajId;
+
+    // Upload only; responses reference the image through imageUrl
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String imageBase64; // Base64 encoded image
 
+    private String imageUrl;
+
+    private long likeCount;
+    private long dislikeCount;
+    private ReactionType currentUserReaction; // Only set when the request names a viewer
+
     // Constructors
     public EventDTO() {}
 
     public EventDTO(Long id, String eventTitle, String eventDescription, String location,
                     LocalDateTime eventDate, LocalDateTime createdAt,
-                    Long createdBy, Long samajId, byte[] imgData) {
+                    Long createdBy, Long samajId, String imageUrl) {
         this.id = id;
         this.eventTitle = eventTitle;
         this.eventDescription = eventDescription;
@@ -33,7 +45,7 @@ public class EventDTO {
         this.createdAt = createdAt;
         this.createdBy = createdBy;
         this.samajId = samajId;
-        this.imageBase64 = imgData != null ? Base64.getEncoder().encodeToString(imgData) : null;
+        this.imageUrl = imageUrl;
     }
 
     // Getters and Setters
@@ -64,7 +76,20 @@ public class EventDTO {
     public String getImageBase64() { return imageBase64; }
     public void setImageBase64(String imageBase64) { this.imageBase64 = imageBase64; }
 
+    public String getImageUrl() { return imageUrl; }
+    public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
+
+    public long getLikeCount() { return likeCount; }
+    public void setLikeCount(long likeCount) { this.likeCount = likeCount; }
+
+    public long getDislikeCount() { return dislikeCount; }
+    public void setDislikeCount(long dislikeCount) { this.dislikeCount = dislikeCount; }
+
+    public ReactionType getCurrentUserReaction() { return currentUserReaction; }
+    public void setCurrentUserReaction(ReactionType currentUserReaction) { this.currentUserReaction = currentUserReaction; }
+
     // Helper method to convert base64 string to byte array for entity
+    @JsonIgnore
     public byte[] getImageBytes() {
         return imageBase64 != null ? Base64.getDecoder().decode(imageBase64) : null;
     }
@@ -0,0 +1,24 @@
+package com.example.samajconnectbackend.dto;
+
+import java.util.List;
+
+public class EventFeedResponse {
+    private List<EventSummaryDto> events;
+    private String nextCursor; // null on the last page
+    private boolean hasNext;
+
+    public EventFeedResponse(List<EventSummaryDto> events, String nextCursor, boolean hasNext) {
+        this.events = events;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+    }
+
+    public List<EventSummaryDto> getEvents() { return events; }
+    public void setEvents(List<EventSummaryDto> events) { this.events = events; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public boolean isHasNext() { return hasNext; }
+    public void setHasNext(boolean hasNext) { this.hasNext = hasNext; }
+}
@@ -0,0 +1,66 @@
+package com.example.samajconnectbackend.dto;
+
+import com.example.samajconnectbackend.entity.ReactionType;
+
+/**
+ * Reaction counts of one event plus the requesting user's reaction, as returned by the batch stats endpoint
+ */
+public class EventReactionSummary {
+
+    private Long eventId;
+    private long likeCount;
+    private long dislikeCount;
+    private long totalReactions;
+    private ReactionType userReaction; // null if the user hasn't reacted
+
+    public EventReactionSummary() {
+    }
+
+    public EventReactionSummary(Long eventId, long likeCount, long dislikeCount, ReactionType userReaction) {
+        this.eventId = eventId;
+        this.likeCount = likeCount;
+        this.dislikeCount = dislikeCount;
+        this.totalReactions = likeCount + dislikeCount;
+        this.userReaction = userReaction;
+    }
+
+    public Long getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(Long eventId) {
+        this.eventId = eventId;
+    }
+
+    public long getLikeCount() {
+        return likeCount;
+    }
+
+    public void setLikeCount(long likeCount) {
+        this.likeCount = likeCount;
+    }
+
+    public long getDislikeCount() {
+        return dislikeCount;
+    }
+
+    public void setDislikeCount(long dislikeCount) {
+        this.dislikeCount = dislikeCount;
+    }
+
+    public long getTotalReactions() {
+        return totalReactions;
+    }
+
+    public void setTotalReactions(long totalReactions) {
+        this.totalReactions = totalReactions;
+    }
+
+    public ReactionType getUserReaction() {
+        return userReaction;
+    }
+
+    public void setUserReaction(ReactionType userReaction) {
+        this.userReaction = userReaction;
+    }
+}
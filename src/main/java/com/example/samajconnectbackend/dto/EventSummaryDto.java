@@ -0,0 +1,81 @@
+package com.example.samajconnectbackend.dto;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.time.LocalDateTime;
+
+/**
+ * Event as shown in a timeline list: no description and no image data, only the image URL
+ */
+public class EventSummaryDto {
+    private Long id;
+    private String eventTitle;
+    private String location;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime eventDate;
+
+    private Long samajId;
+
+    @JsonIgnore
+    private Long imageVersion;
+
+    private String imageUrl;
+    private long likeCount;
+    private long dislikeCount;
+
+    // Constructors
+    public EventSummaryDto() {}
+
+    // Used by the feed query's constructor expression
+    public EventSummaryDto(Long id, String eventTitle, String location, LocalDateTime eventDate,
+                           Long samajId, Long imageVersion, Integer likeCount, Integer dislikeCount) {
+        this.id = id;
+        this.eventTitle = eventTitle;
+        this.location = location;
+        this.eventDate = eventDate;
+        this.samajId = samajId;
+        this.imageVersion = imageVersion;
+        this.likeCount = likeCount != null ? likeCount : 0;
+        this.dislikeCount = dislikeCount != null ? dislikeCount : 0;
+    }
+
+    public EventSummaryDto(EventSummaryDto other) {
+        this.id = other.id;
+        this.eventTitle = other.eventTitle;
+        this.location = other.location;
+        this.eventDate = other.eventDate;
+        this.samajId = other.samajId;
+        this.imageVersion = other.imageVersion;
+        this.imageUrl = other.imageUrl;
+        this.likeCount = other.likeCount;
+        this.dislikeCount = other.dislikeCount;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getEventTitle() { return eventTitle; }
+    public void setEventTitle(String eventTitle) { this.eventTitle = eventTitle; }
+
+    public String getLocation() { return location; }
+    public void setLocation(String location) { this.location = location; }
+
+    public LocalDateTime getEventDate() { return eventDate; }
+    public void setEventDate(LocalDateTime eventDate) { this.eventDate = eventDate; }
+
+    public Long getSamajId() { return samajId; }
+    public void setSamajId(Long samajId) { this.samajId = samajId; }
+
+    public Long getImageVersion() { return imageVersion; }
+    public void setImageVersion(Long imageVersion) { this.imageVersion = imageVersion; }
+
+    public String getImageUrl() { return imageUrl; }
+    public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
+
+    public long getLikeCount() { return likeCount; }
+    public void setLikeCount(long likeCount) { this.likeCount = likeCount; }
+
+    public long getDislikeCount() { return dislikeCount; }
+    public void setDislikeCount(long dislikeCount) { this.dislikeCount = dislikeCount; }
+}
@@ -0,0 +1,18 @@
+package com.example.samajconnectbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Binary image payload served by the image endpoints, with the validators used for conditional GET
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageResource {
+    private byte[] data;
+    private String contentType;
+    private String eTag;
+    private long lastModified; // epoch millis
+}
@@ -0,0 +1,21 @@
+package com.example.samajconnectbackend.dto;
+
+import com.example.samajconnectbackend.entity.RelationshipType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class KinshipPathResponse {
+    private UserNodeDto fromUser;
+    private UserNodeDto toUser;
+    private boolean connected;
+    private Integer degree;
+    // Each relationship is what the next person in the path is to the one before
+    private List<RelationshipType> relationshipChain;
+    private String relationshipDescription;
+    private List<UserNodeDto> path;
+}
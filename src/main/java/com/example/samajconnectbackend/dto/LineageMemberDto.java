@@ -0,0 +1,26 @@
+package com.example.samajconnectbackend.dto;
+
+import com.example.samajconnectbackend.entity.RelationshipType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One ancestor or descendant: who they are, how many generations away, and the relative in the line
+ * before them (relationshipType is what this member is to viaUserId)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LineageMemberDto {
+    private Long userId;
+    private String name;
+    private String email;
+    private String profileImageUrl;
+    private boolean hasProfileImage;
+    private Integer generationLevel;
+    private String generationName;
+    private Long viaUserId;
+    private RelationshipType relationshipType;
+    private String relationshipDisplayName;
+}
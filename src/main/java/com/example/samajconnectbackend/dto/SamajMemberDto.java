@@ -3,7 +3,6 @@ package com.example.samajconnectbackend.dto;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import java.util.Base64;
 
 @Data
 @NoArgsConstructor
@@ -15,7 +14,7 @@ public class SamajMemberDto {
     private String gender;
     private String phoneNumber;
     private String address;
-    private String profileImageBase64;
+    private String profileImageUrl;
     private boolean hasProfileImage;
     private RelationshipStatus relationshipStatus;
     private String relationshipStatusText;
@@ -28,14 +27,9 @@ public class SamajMemberDto {
         SAME_USER           // This is the current user (shouldn't happen in search)
     }
 
-    // Helper method to set profile image from byte array
-    public void setProfileImageFromBytes(byte[] profileImg) {
-        if (profileImg != null && profileImg.length > 0) {
-            this.profileImageBase64 = Base64.getEncoder().encodeToString(profileImg);
-            this.hasProfileImage = true;
-        } else {
-            this.profileImageBase64 = null;
-            this.hasProfileImage = false;
-        }
+    // Helper method to set the profile image URL; null means the member has no image
+    public void setProfileImage(String profileImageUrl) {
+        this.profileImageUrl = profileImageUrl;
+        this.hasProfileImage = profileImageUrl != null;
     }
 }
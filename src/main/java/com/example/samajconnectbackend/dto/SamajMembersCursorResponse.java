@@ -0,0 +1,16 @@
+package com.example.samajconnectbackend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import java.util.List;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SamajMembersCursorResponse {
+    private List<DetailedUserDto> members;
+    private String nextCursor; // null on the last page
+    private boolean hasNext;
+    private String message;
+    private Long samajId;
+    private String samajName;
+}
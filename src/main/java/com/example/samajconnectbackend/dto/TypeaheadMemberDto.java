@@ -0,0 +1,16 @@
+package com.example.samajconnectbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TypeaheadMemberDto {
+    private Long userId;
+    private String name;
+    private String email;
+    private String phoneNumber;
+    private String profileImageUrl;
+}
@@ -73,7 +73,7 @@ public class UpdateUserProfileRequest {
                 }
                 return Base64.getDecoder().decode(base64Data);
             } catch (IllegalArgumentException e) {
-                throw new RuntimeException("Invalid base64 image data");
+                throw new IllegalArgumentException("Invalid base64 image data");
             }
         }
         return null;
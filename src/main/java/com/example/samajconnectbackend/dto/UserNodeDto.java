@@ -13,7 +13,7 @@ public class UserNodeDto {
     private Long userId;
     private String name;
     private String email;
-    private String profileImageBase64;
+    private String profileImageUrl;
     private RelationshipType relationshipType;
     private String relationshipDisplayName;
     private RelationshipSide relationshipSide;
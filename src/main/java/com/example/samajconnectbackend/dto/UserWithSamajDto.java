@@ -4,8 +4,6 @@ import lombok.Getter;
 import lombok.Setter;
 
 import java.time.LocalDateTime;
-import java.util.Arrays;
-import java.util.Base64;
 @Getter
 @Setter
 public class UserWithSamajDto {
@@ -14,7 +12,7 @@ public class UserWithSamajDto {
     private String name;
     private String email;
     private Boolean isAdmin;
-    private byte[] profileImg;
+    private String profileImageUrl;
     private String phoneNumber;
     private String gender;
     private String address;
@@ -26,13 +24,13 @@ public class UserWithSamajDto {
     public UserWithSamajDto() {}
 
     public UserWithSamajDto(Long id, String name, String email, Boolean isAdmin,
-                            byte[] profileImg, String phoneNumber, String address,
+                            String profileImageUrl, String phoneNumber, String address,
                             LocalDateTime createdAt, LocalDateTime updatedAt, SamajDto samaj) {
         this.id = id;
         this.name = name;
         this.email = email;
         this.isAdmin = isAdmin;
-        this.profileImg = profileImg;
+        this.profileImageUrl = profileImageUrl;
         this.phoneNumber = phoneNumber;
         this.address = address;
         this.createdAt = createdAt;
@@ -40,14 +38,6 @@ public class UserWithSamajDto {
         this.samaj = samaj;
     }
 
-    // Helper method to get base64 encoded image for frontend
-    public String getProfileImgBase64() {
-        if (profileImg != null && profileImg.length > 0) {
-            return Base64.getEncoder().encodeToString(profileImg);
-        }
-        return null;
-    }
-
     @Override
     public String toString() {
         return "UserWithSamajDto{" +
@@ -55,7 +45,7 @@ public class UserWithSamajDto {
                 ", name='" + name + '\'' +
                 ", email='" + email + '\'' +
                 ", isAdmin=" + isAdmin +
-                ", profileImg=" + Arrays.toString(profileImg) +
+                ", profileImageUrl='" + profileImageUrl + '\'' +
                 ", phoneNumber='" + phoneNumber + '\'' +
                 ", address='" + address + '\'' +
                 ", createdAt=" + createdAt +
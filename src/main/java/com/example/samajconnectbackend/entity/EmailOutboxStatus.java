@@ -0,0 +1,8 @@
+package com.example.samajconnectbackend.entity;
+
+public enum EmailOutboxStatus {
+    PENDING,  // waiting for its first or next attempt
+    SENDING,  // claimed by a worker until next_attempt_at; reclaimed after that if the worker died
+    SENT,
+    FAILED    // gave up after the maximum number of attempts
+}
@@ -7,7 +7,9 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "events")
+@Table(name = "events", indexes = {
+        @Index(name = "idx_events_samaj_date_id", columnList = "samaj_id, event_date, id")
+})
 public class Event {
 
     @Id
@@ -40,8 +42,10 @@ public class Event {
     @Column(name = "samaj_id", nullable = false)
     private Long samajId;
 
-    @Column(name = "img_data")
-    private byte[] imgData;
+    // Epoch millis of the last image upload, null if the event has none.
+    // The image itself lives in image_renditions so event queries never read image bytes.
+    @Column(name = "image_version")
+    private Long imageVersion;
 
     @Column(name = "like_count")
     private Integer likeCount = 0;
@@ -81,14 +85,13 @@ public class Event {
     }
 
     public Event(String eventTitle, String eventDescription, String location,
-                 LocalDateTime eventDate, Long createdBy, Long samajId, byte[] imgData) {
+                 LocalDateTime eventDate, Long createdBy, Long samajId) {
         this.eventTitle = eventTitle;
         this.eventDescription = eventDescription;
         this.location = location;
         this.eventDate = eventDate;
         this.createdBy = createdBy;
         this.samajId = samajId;
-        this.imgData = imgData;
     }
 
     // Getters and Setters
@@ -119,6 +122,6 @@ public class Event {
     public Long getSamajId() { return samajId; }
     public void setSamajId(Long samajId) { this.samajId = samajId; }
 
-    public byte[] getImgData() { return imgData; }
-    public void setImgData(byte[] imgData) { this.imgData = imgData; }
+    public Long getImageVersion() { return imageVersion; }
+    public void setImageVersion(Long imageVersion) { this.imageVersion = imageVersion; }
 }
\ No newline at end of file
@@ -7,7 +7,11 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "event_reactions")
+@Table(name = "event_reactions", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_event_reactions_user_event", columnNames = {"user_id", "event_id"})
+}, indexes = {
+        @Index(name = "idx_event_reactions_event", columnList = "event_id")
+})
 public class EventReaction {
 
     @Id
@@ -0,0 +1,6 @@
+package com.example.samajconnectbackend.entity;
+
+public enum ImageOwnerType {
+    USER,
+    EVENT
+}
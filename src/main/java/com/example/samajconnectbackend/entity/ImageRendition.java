@@ -0,0 +1,59 @@
+package com.example.samajconnectbackend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * One pre-generated size of a profile or event image. Kept out of the users/events rows
+ * so that loading a user or an event never pulls image bytes along with it.
+ */
+@Entity
+@Table(name = "image_renditions",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_image_renditions_owner_variant",
+                        columnNames = {"owner_type", "owner_id", "variant"})
+        }
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageRendition {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "owner_type", nullable = false, length = 20)
+    private ImageOwnerType ownerType;
+
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "variant", nullable = false, length = 20)
+    private ImageVariant variant;
+
+    @Column(name = "content_type", nullable = false, length = 50)
+    private String contentType;
+
+    @Column(name = "width", nullable = false)
+    private Integer width;
+
+    @Column(name = "height", nullable = false)
+    private Integer height;
+
+    @ToString.Exclude
+    @Column(name = "data", nullable = false)
+    private byte[] data;
+
+    @CreationTimestamp
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
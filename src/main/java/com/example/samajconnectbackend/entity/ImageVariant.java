@@ -0,0 +1,40 @@
+package com.example.samajconnectbackend.entity;
+
+public enum ImageVariant {
+    SMALL("small", 160),
+    MEDIUM("medium", 640),
+    ORIGINAL("original", 2048);
+
+    private final String value;
+    private final int maxDimension;
+
+    ImageVariant(String value, int maxDimension) {
+        this.value = value;
+        this.maxDimension = maxDimension;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Longest edge, in pixels, a rendition of this variant may have
+     */
+    public int getMaxDimension() {
+        return maxDimension;
+    }
+
+    public static ImageVariant fromString(String text) {
+        for (ImageVariant variant : ImageVariant.values()) {
+            if (variant.value.equalsIgnoreCase(text) || variant.name().equalsIgnoreCase(text)) {
+                return variant;
+            }
+        }
+        throw new IllegalArgumentException("Unknown image size: " + text);
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+}
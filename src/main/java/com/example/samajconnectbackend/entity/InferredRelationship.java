@@ -0,0 +1,51 @@
+package com.example.samajconnectbackend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A relationship implied by approved ones (a father's brother is a paternal uncle) rather than requested
+ * and approved itself. The rows of a user are derived data: RelationshipInferenceService rewrites them
+ * whenever a relationship near the user changes.
+ */
+@Entity
+@Table(name = "inferred_relationships",
+        uniqueConstraints = {
+                @UniqueConstraint(columnNames = {"user_id", "related_user_id", "relationship_type"})
+        }
+)
+@Data
+@NoArgsConstructor
+public class InferredRelationship {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "related_user_id", nullable = false)
+    private Long relatedUserId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "relationship_type", nullable = false, length = 50)
+    private RelationshipType relationshipType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "relationship_side", length = 20)
+    private RelationshipSide relationshipSide;
+
+    @Column(name = "generation_level", nullable = false)
+    private Integer generationLevel = 0;
+
+    // The relative the implied relationship goes through, e.g. the father for a paternal uncle
+    @Column(name = "via_user_id", nullable = false)
+    private Long viaUserId;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
@@ -0,0 +1,30 @@
+package com.example.samajconnectbackend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Records that a one-off startup migration has finished, for migrations whose progress can't be read from
+ * the data they write
+ */
+@Entity
+@Table(name = "migration_markers")
+@Data
+@NoArgsConstructor
+public class MigrationMarker {
+
+    @Id
+    @Column(name = "name", length = 100)
+    private String name;
+
+    @Column(name = "completed_at", nullable = false)
+    private LocalDateTime completedAt;
+
+    public MigrationMarker(String name, LocalDateTime completedAt) {
+        this.name = name;
+        this.completedAt = completedAt;
+    }
+}
@@ -43,11 +43,19 @@ public class Samaj {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Maintained on registration (SamajMembershipService) and corrected by SamajMemberCountReconciler
+    @Column(name = "member_count", columnDefinition = "integer default 0")
+    private Integer memberCount = 0;
+
     // One samaj can have many users
     @OneToMany(mappedBy = "samaj", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @ToString.Exclude
     private List<User> users;
 
+    public int getMemberCountOrZero() {
+        return memberCount != null ? memberCount : 0;
+    }
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -12,7 +12,10 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        // Serves the keyset member listing: WHERE samaj_id = ? AND (name, id) > (?, ?) ORDER BY name, id
+        @Index(name = "idx_users_samaj_name_id", columnList = "samaj_id, name, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -39,9 +42,10 @@ public class User {
     @Column(name = "phone_number")
     private String phoneNumber;
 
-    // Changed from String to byte[] to store image data
-    @Column(name = "profile_img")
-    private byte[] profileImg;
+    // Epoch millis of the last profile image upload, null if the user has none.
+    // The image itself lives in image_renditions so user queries never read image bytes.
+    @Column(name = "profile_image_version")
+    private Long profileImageVersion;
 
     @Column(name = "is_admin")
     private Boolean isAdmin = false;
@@ -10,6 +10,11 @@ import java.time.LocalDateTime;
 @Table(name = "user_relationships",
         uniqueConstraints = {
                 @UniqueConstraint(columnNames = {"user_id", "related_user_id", "relationship_type", "is_active"})
+        },
+        indexes = {
+                // Serves the family member search filters
+                @Index(name = "idx_user_relationships_search",
+                        columnList = "user_id, is_active, generation_level, relationship_side")
         }
 )
 @Data
@@ -0,0 +1,8 @@
+package com.example.samajconnectbackend.event;
+
+/**
+ * Published when a message is added to the email outbox, so the worker can send it
+ * right after the transaction commits instead of waiting for its next poll
+ */
+public class EmailQueuedEvent {
+}
@@ -0,0 +1,44 @@
+package com.example.samajconnectbackend.event;
+
+import com.example.samajconnectbackend.entity.UserRelationship;
+import com.example.samajconnectbackend.service.KinshipGraph;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Published when active relationships are created, changed or removed.
+ * Carries a snapshot of the saved edges so listeners don't have to read them back from the database.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class KinshipChangedEvent {
+    private final List<KinshipGraph.Edge> upserted;
+    private final Long removedUserId;
+    private final Long removedRelatedUserId;
+
+    public static KinshipChangedEvent saved(UserRelationship... relationships) {
+        List<KinshipGraph.Edge> edges = new ArrayList<>();
+        for (UserRelationship relationship : relationships) {
+            edges.add(new KinshipGraph.Edge(
+                    relationship.getId(),
+                    relationship.getUserId(),
+                    relationship.getRelatedUserId(),
+                    relationship.getRelationshipType(),
+                    relationship.getRelationshipSide(),
+                    relationship.getGenerationLevel()
+            ));
+        }
+        return new KinshipChangedEvent(edges, null, null);
+    }
+
+    /**
+     * Every relationship between the two users was deactivated, in both directions
+     */
+    public static KinshipChangedEvent removed(Long userId, Long relatedUserId) {
+        return new KinshipChangedEvent(List.of(), userId, relatedUserId);
+    }
+}
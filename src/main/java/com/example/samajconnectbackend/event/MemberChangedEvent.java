@@ -0,0 +1,31 @@
+package com.example.samajconnectbackend.event;
+
+import com.example.samajconnectbackend.entity.User;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when a member is created or their searchable profile fields change.
+ * Carries a snapshot so listeners don't have to read the user back from the database.
+ */
+@Getter
+@AllArgsConstructor
+public class MemberChangedEvent {
+    private final Long userId;
+    private final Long samajId;
+    private final String name;
+    private final String email;
+    private final String phoneNumber;
+    private final Long profileImageVersion;
+
+    public static MemberChangedEvent of(User user) {
+        return new MemberChangedEvent(
+                user.getId(),
+                user.getSamaj() != null ? user.getSamaj().getId() : null,
+                user.getName(),
+                user.getEmail(),
+                user.getPhoneNumber(),
+                user.getProfileImageVersion()
+        );
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.samajconnectbackend.migration;
+
+import com.example.samajconnectbackend.entity.MigrationMarker;
+import com.example.samajconnectbackend.repository.MigrationMarkerRepository;
+import com.example.samajconnectbackend.repository.UserRelationshipRepository;
+import com.example.samajconnectbackend.service.RelationshipInferenceService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Fills inferred_relationships for relationships approved before inference existed. The work happens on the
+ * inference worker, so startup doesn't wait for it, and a marker row is written once every user has been
+ * recomputed. Until then each start queues the users that still have no inferred rows, so an interrupted
+ * run resumes where it stopped.
+ */
+@Component
+public class InferredRelationshipBackfill implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(InferredRelationshipBackfill.class);
+
+    static final String MARKER = "inferred-relationships-backfill";
+
+    @Autowired
+    private MigrationMarkerRepository migrationMarkerRepository;
+
+    @Autowired
+    private UserRelationshipRepository relationshipRepository;
+
+    @Autowired
+    private RelationshipInferenceService relationshipInferenceService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            if (migrationMarkerRepository.existsById(MARKER)) {
+                return;
+            }
+            List<Long> userIds = relationshipRepository.findActiveUserIdsWithoutInferences();
+            if (!userIds.isEmpty()) {
+                logger.info("Inferring relationships for {} users in the background", userIds.size());
+            }
+            relationshipInferenceService.refresh(userIds, this::markDone);
+        } catch (RuntimeException e) {
+            logger.error("Could not backfill inferred relationships: {}", e.getMessage());
+        }
+    }
+
+    private void markDone() {
+        migrationMarkerRepository.save(new MigrationMarker(MARKER, LocalDateTime.now()));
+        logger.info("Inferred relationship backfill complete");
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.samajconnectbackend.migration;
+
+import com.example.samajconnectbackend.entity.ImageOwnerType;
+import com.example.samajconnectbackend.entity.ImageVariant;
+import com.example.samajconnectbackend.service.ImageProcessingService;
+import com.example.samajconnectbackend.service.ImageStorageService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves images still stored inline in users.profile_img / events.img_data into image_renditions.
+ * Those columns are no longer mapped, so this runs over plain JDBC. Each row is copied and
+ * cleared in its own transaction, so an interrupted run simply resumes on the next start.
+ */
+@Component
+public class LegacyImageMigration implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(LegacyImageMigration.class);
+
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ImageProcessingService imageProcessingService;
+
+    @Autowired
+    private ImageStorageService imageStorageService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        migrate(ImageOwnerType.USER, "users", "profile_img", "profile_image_version");
+        migrate(ImageOwnerType.EVENT, "events", "img_data", "image_version");
+        dropUnresizedCopies();
+    }
+
+    /**
+     * Earlier runs stored an unprocessable legacy image unchanged as every variant, recognisable by its 0x0
+     * size; only the original copy is kept
+     */
+    private void dropUnresizedCopies() {
+        try {
+            Integer removed = transactionTemplate.execute(status -> jdbcTemplate.update(
+                    "DELETE FROM image_renditions WHERE variant IN ('SMALL', 'MEDIUM') AND width = 0 AND height = 0"));
+            if (removed != null && removed > 0) {
+                logger.info("Removed {} full-size copies of unprocessed legacy images", removed);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Could not remove full-size copies of unprocessed legacy images: {}", e.getMessage());
+        }
+    }
+
+    private void migrate(ImageOwnerType ownerType, String table, String blobColumn, String versionColumn) {
+        if (!columnExists(table, blobColumn)) {
+            return;
+        }
+
+        int migrated = 0;
+        int failed = 0;
+        long lastId = 0L;
+        while (true) {
+            // Only ids here; the bytes are read one row at a time below
+            long afterId = lastId;
+            List<Long> ids = transactionTemplate.execute(status -> jdbcTemplate.queryForList(
+                    "SELECT id FROM " + table + " WHERE " + blobColumn + " IS NOT NULL AND id > ? ORDER BY id LIMIT ?",
+                    Long.class, afterId, BATCH_SIZE));
+            if (ids == null || ids.isEmpty()) {
+                break;
+            }
+
+            for (Long id : ids) {
+                try {
+                    Boolean done = transactionTemplate.execute(status ->
+                            migrateRow(ownerType, table, blobColumn, versionColumn, id));
+                    if (Boolean.TRUE.equals(done)) {
+                        migrated++;
+                    }
+                } catch (RuntimeException e) {
+                    failed++;
+                    logger.error("Failed to migrate image of {} {}: {}", ownerType, id, e.getMessage());
+                }
+                lastId = id;
+            }
+        }
+
+        if (migrated > 0 || failed > 0) {
+            logger.info("Migrated {} legacy {} images into image_renditions ({} failed)", migrated, ownerType, failed);
+        }
+    }
+
+    private boolean migrateRow(ImageOwnerType ownerType, String table, String blobColumn, String versionColumn, Long id) {
+        // SKIP LOCKED lets several instances run the migration at once without doing the same row twice
+        List<byte[]> rows = jdbcTemplate.query(
+                "SELECT " + blobColumn + " FROM " + table + " WHERE id = ? AND " + blobColumn + " IS NOT NULL FOR UPDATE SKIP LOCKED",
+                (rs, rowNum) -> rs.getBytes(1), id);
+        if (rows.isEmpty()) {
+            return false;
+        }
+
+        byte[] source = rows.get(0);
+        Long version = null;
+        if (source != null && source.length > 0) {
+            imageStorageService.replaceRenditions(ownerType, id, renditionsOf(ownerType, id, source));
+            version = ImageStorageService.nextVersion(null);
+        }
+
+        jdbcTemplate.update("UPDATE " + table + " SET " + blobColumn + " = NULL, " + versionColumn + " = ? WHERE id = ?",
+                version, id);
+        return true;
+    }
+
+    private Map<ImageVariant, ImageProcessingService.ProcessedImage> renditionsOf(ImageOwnerType ownerType, Long id, byte[] source) {
+        try {
+            return imageProcessingService.process(source);
+        } catch (IllegalArgumentException e) {
+            // Legacy uploads were never validated; keep the bytes as the original rather than lose them. Single
+            // image views fall back to it; lists get no thumbnail instead of the full-size bytes.
+            logger.warn("Legacy image of {} {} could not be processed ({}), storing it unchanged as the original only",
+                    ownerType, id, e.getMessage());
+            Map<ImageVariant, ImageProcessingService.ProcessedImage> renditions = new EnumMap<>(ImageVariant.class);
+            renditions.put(ImageVariant.ORIGINAL, new ImageProcessingService.ProcessedImage(
+                    source, ImageProcessingService.detectContentType(source), 0, 0));
+            return renditions;
+        }
+    }
+
+    private boolean columnExists(String table, String column) {
+        Integer count = transactionTemplate.execute(status -> jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.columns " +
+                        "WHERE table_schema = current_schema() AND table_name = ? AND column_name = ?",
+                Integer.class, table, column));
+        return count != null && count > 0;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.samajconnectbackend.migration;
+
+import com.example.samajconnectbackend.service.MemberSearchService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Sets up pg_trgm and the GIN trigram indexes behind member search. Postgres keeps the
+ * indexes current on every insert and update. If the extension can't be installed (e.g. no
+ * privilege on a managed database), member search keeps using the LIKE queries.
+ */
+@Component
+public class MemberSearchIndexInitializer implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(MemberSearchIndexInitializer.class);
+
+    private static final List<String> INDEXES = List.of(
+            "CREATE INDEX IF NOT EXISTS idx_users_name_trgm ON users USING gin (lower(name) gin_trgm_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_users_email_trgm ON users USING gin (lower(email) gin_trgm_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_users_phone_trgm ON users USING gin (lower(phone_number) gin_trgm_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_users_address_trgm ON users USING gin (lower(address) gin_trgm_ops)"
+    );
+
+    @Value("${app.search.trigram.enabled:true}")
+    private boolean trigramEnabled;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MemberSearchService memberSearchService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!trigramEnabled) {
+            memberSearchService.setTrigramSearchEnabled(false);
+            return;
+        }
+
+        // Each statement in its own transaction: a failure aborts the surrounding Postgres transaction
+        execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+        if (!extensionInstalled()) {
+            logger.warn("pg_trgm is not available, member search falls back to LIKE queries");
+            memberSearchService.setTrigramSearchEnabled(false);
+            return;
+        }
+
+        for (String index : INDEXES) {
+            execute(index);
+        }
+        memberSearchService.setTrigramSearchEnabled(true);
+    }
+
+    private void execute(String sql) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.execute(sql));
+        } catch (RuntimeException e) {
+            logger.warn("Could not run '{}': {}", sql, e.getMessage());
+        }
+    }
+
+    private boolean extensionInstalled() {
+        try {
+            Integer count = transactionTemplate.execute(status -> jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM pg_extension WHERE extname = 'pg_trgm'", Integer.class));
+            return count != null && count > 0;
+        } catch (RuntimeException e) {
+            logger.warn("Could not check for pg_trgm: {}", e.getMessage());
+            return false;
+        }
+    }
+}
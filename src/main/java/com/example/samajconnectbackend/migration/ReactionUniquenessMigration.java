@@ -0,0 +1,52 @@
+package com.example.samajconnectbackend.migration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Removes duplicate reactions left by concurrent taps before the unique (user_id, event_id) index
+ * existed, keeping each user's latest row, then makes sure the index is there. Hibernate can't add
+ * the constraint on its own while duplicates remain. Event counters are reconciled on startup afterwards.
+ */
+@Component
+public class ReactionUniquenessMigration implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactionUniquenessMigration.class);
+
+    private static final String DELETE_DUPLICATES_SQL = "DELETE FROM event_reactions er " +
+            "USING event_reactions newer " +
+            "WHERE er.user_id = newer.user_id AND er.event_id = newer.event_id AND er.id < newer.id";
+
+    private static final String CREATE_INDEX_SQL = "CREATE UNIQUE INDEX IF NOT EXISTS uk_event_reactions_user_event " +
+            "ON event_reactions (user_id, event_id)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            Integer removed = transactionTemplate.execute(status -> {
+                // Keep concurrent reactions out until the index exists
+                jdbcTemplate.execute("LOCK TABLE event_reactions IN SHARE ROW EXCLUSIVE MODE");
+                int deleted = jdbcTemplate.update(DELETE_DUPLICATES_SQL);
+                jdbcTemplate.execute(CREATE_INDEX_SQL);
+                return deleted;
+            });
+            if (removed != null && removed > 0) {
+                logger.info("Removed {} duplicate event reaction(s)", removed);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Could not enforce unique event reactions: {}", e.getMessage());
+        }
+    }
+}
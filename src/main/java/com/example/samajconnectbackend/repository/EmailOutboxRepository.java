@@ -0,0 +1,36 @@
+package com.example.samajconnectbackend.repository;
+
+import com.example.samajconnectbackend.entity.EmailOutboxMessage;
+import com.example.samajconnectbackend.entity.EmailOutboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, Long> {
+
+    /**
+     * Lock up to :limit messages that are due, oldest first: pending ones, and claimed ones whose worker
+     * didn't finish in time. Rows locked by another worker are skipped rather than waited for.
+     */
+    @Query(value = "SELECT * FROM email_outbox " +
+            "WHERE status IN ('PENDING', 'SENDING') AND next_attempt_at <= :now " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<EmailOutboxMessage> lockDueBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    long countByStatusIn(Collection<EmailOutboxStatus> statuses);
+
+    @Modifying
+    @Query("DELETE FROM EmailOutboxMessage m WHERE m.status = 'SENT' AND m.sentAt < :cutoff")
+    int deleteSentBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Query("DELETE FROM EmailOutboxMessage m WHERE m.status = 'FAILED' AND m.createdAt < :cutoff")
+    int deleteFailedCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -3,10 +3,12 @@ package com.example.samajconnectbackend.repository;
 import com.example.samajconnectbackend.entity.EventReaction;
 import com.example.samajconnectbackend.entity.ReactionType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,9 +18,46 @@ public interface EventReactionRepository extends JpaRepository<EventReaction, Lo
     // Find reaction by user and event
     Optional<EventReaction> findByUserIdAndEventId(Long userId, Long eventId);
 
+    // Lock a user's reaction row until the transaction ends and return its type, if there is one
+    @Query(value = "SELECT reaction_type FROM event_reactions WHERE user_id = :userId AND event_id = :eventId FOR UPDATE",
+            nativeQuery = true)
+    Optional<String> lockReactionType(@Param("userId") Long userId, @Param("eventId") Long eventId);
+
+    // Insert a reaction unless the user already has one for the event; returns the number of rows inserted
+    @Modifying
+    @Query(value = "INSERT INTO event_reactions (user_id, event_id, reaction_type, created_at, updated_at) " +
+            "VALUES (:userId, :eventId, :reactionType, now(), now()) " +
+            "ON CONFLICT (user_id, event_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("eventId") Long eventId,
+                       @Param("reactionType") String reactionType);
+
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE event_reactions SET reaction_type = :reactionType, updated_at = now() " +
+            "WHERE user_id = :userId AND event_id = :eventId", nativeQuery = true)
+    int updateReactionType(@Param("userId") Long userId, @Param("eventId") Long eventId,
+                           @Param("reactionType") String reactionType);
+
+    @Modifying(clearAutomatically = true)
+    @Query(value = "DELETE FROM event_reactions WHERE user_id = :userId AND event_id = :eventId", nativeQuery = true)
+    int deleteReaction(@Param("userId") Long userId, @Param("eventId") Long eventId);
+
     // Count reactions by event and type
     long countByEventIdAndReactionType(Long eventId, ReactionType reactionType);
 
+    // Count reactions of an event per type, as [reactionType, count]
+    @Query("SELECT er.reactionType, COUNT(er) FROM EventReaction er WHERE er.eventId = :eventId GROUP BY er.reactionType")
+    List<Object[]> countByEventIdGroupByReactionType(@Param("eventId") Long eventId);
+
+    // Count reactions of several events per type, as [eventId, reactionType, count]
+    @Query("SELECT er.eventId, er.reactionType, COUNT(er) FROM EventReaction er " +
+            "WHERE er.eventId IN :eventIds GROUP BY er.eventId, er.reactionType")
+    List<Object[]> countByEventIdsGroupByEventIdAndReactionType(@Param("eventIds") Collection<Long> eventIds);
+
+    // A user's reactions to several events, as [eventId, reactionType]
+    @Query("SELECT er.eventId, er.reactionType FROM EventReaction er WHERE er.userId = :userId AND er.eventId IN :eventIds")
+    List<Object[]> findReactionTypesByUserIdAndEventIds(@Param("userId") Long userId,
+                                                        @Param("eventIds") Collection<Long> eventIds);
+
     // Find all reactions for a specific event
     List<EventReaction> findByEventId(Long eventId);
 
@@ -1,22 +1,95 @@
 package com.example.samajconnectbackend.repository;
+import com.example.samajconnectbackend.dto.EventSummaryDto;
 import com.example.samajconnectbackend.entity.Event;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface EventRepository extends JpaRepository<Event, Long> {
 
-    List<Event> findBySamajIdOrderByEventDateDesc(Long samajId);
-
     List<Event> findBySamajIdOrderByCreatedAtDesc(Long samajId);
 
-    @Query("SELECT e FROM Event e WHERE e.samajId = :samajId AND e.eventDate >= CURRENT_TIMESTAMP ORDER BY e.eventDate ASC LIMIT 3")
-    List<Event> findUpcomingEventsBySamajId(@Param("samajId") Long samajId);
+    // Which of the given ids belong to existing events
+    @Query("SELECT e.id FROM Event e WHERE e.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Events of a samaj with the viewer's reaction to each (null if none or no viewer), as [Event, ReactionType].
+    // Rows are fetched from a server-side cursor; consume the stream inside a transaction and close it.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    @Query("SELECT e, r.reactionType FROM Event e " +
+            "LEFT JOIN EventReaction r ON r.eventId = e.id AND r.userId = :viewerId " +
+            "WHERE e.samajId = :samajId ORDER BY e.eventDate DESC")
+    Stream<Object[]> streamBySamajIdWithViewerReaction(@Param("samajId") Long samajId, @Param("viewerId") Long viewerId);
+
+    /**
+     * Keyset page of a samaj's events within [from, to], newest first by (eventDate, id), without
+     * descriptions or images. The index on (samaj_id, event_date, id) serves both the window and the order.
+     */
+    @Query("SELECT new com.example.samajconnectbackend.dto.EventSummaryDto(" +
+            "e.id, e.eventTitle, e.location, e.eventDate, e.samajId, e.imageVersion, e.likeCount, e.dislikeCount) " +
+            "FROM Event e WHERE e.samajId = :samajId " +
+            "AND e.eventDate >= :from AND e.eventDate <= :to " +
+            "AND (e.eventDate < :beforeDate OR (e.eventDate = :beforeDate AND e.id < :beforeId)) " +
+            "ORDER BY e.eventDate DESC, e.id DESC")
+    List<EventSummaryDto> findFeedPage(@Param("samajId") Long samajId,
+                                       @Param("from") LocalDateTime from,
+                                       @Param("to") LocalDateTime to,
+                                       @Param("beforeDate") LocalDateTime beforeDate,
+                                       @Param("beforeId") Long beforeId,
+                                       Pageable pageable);
+
+    // Next events of a samaj starting at or after :now, soonest first, as list summaries
+    @Query("SELECT new com.example.samajconnectbackend.dto.EventSummaryDto(" +
+            "e.id, e.eventTitle, e.location, e.eventDate, e.samajId, e.imageVersion, e.likeCount, e.dislikeCount) " +
+            "FROM Event e WHERE e.samajId = :samajId AND e.eventDate >= :now ORDER BY e.eventDate ASC, e.id ASC")
+    List<EventSummaryDto> findUpcomingSummariesBySamajId(@Param("samajId") Long samajId,
+                                                         @Param("now") LocalDateTime now,
+                                                         Pageable pageable);
 
     @Query("SELECT e FROM Event e WHERE e.samajId = :samajId ORDER BY e.createdAt DESC")
     List<Event> findRecentEventsBySamajId(@Param("samajId") Long samajId);
+
+    // Recompute like_count / dislike_count from event_reactions wherever they differ
+    @Modifying
+    @Query(value = "UPDATE events e SET like_count = c.likes, dislike_count = c.dislikes " +
+            "FROM (SELECT e2.id, " +
+            "COUNT(r.id) FILTER (WHERE r.reaction_type = 'LIKE') AS likes, " +
+            "COUNT(r.id) FILTER (WHERE r.reaction_type = 'DISLIKE') AS dislikes " +
+            "FROM events e2 LEFT JOIN event_reactions r ON r.event_id = e2.id GROUP BY e2.id) c " +
+            "WHERE e.id = c.id AND (e.like_count IS DISTINCT FROM c.likes OR e.dislike_count IS DISTINCT FROM c.dislikes)",
+            nativeQuery = true)
+    int reconcileReactionCounts();
+
+    // Changes whenever an event of the samaj or a reaction to one is added, changed or removed
+    @Query(value = "SELECT concat_ws(':', " +
+            "(SELECT count(*) FROM events e WHERE e.samaj_id = :samajId), " +
+            "(SELECT coalesce(max(e.updated_at)::text, '-') FROM events e WHERE e.samaj_id = :samajId), " +
+            "(SELECT count(*) FROM event_reactions r JOIN events e ON e.id = r.event_id WHERE e.samaj_id = :samajId), " +
+            "(SELECT coalesce(max(r.updated_at)::text, '-') FROM event_reactions r JOIN events e ON e.id = r.event_id " +
+            "WHERE e.samaj_id = :samajId))", nativeQuery = true)
+    String findEventsWatermarkBySamajId(@Param("samajId") Long samajId);
+
+    // Same for a single event; empty when the event doesn't exist
+    @Query(value = "SELECT concat_ws(':', coalesce(e.updated_at::text, '-'), " +
+            "(SELECT count(*) FROM event_reactions r WHERE r.event_id = e.id), " +
+            "(SELECT coalesce(max(r.updated_at)::text, '-') FROM event_reactions r WHERE r.event_id = e.id)) " +
+            "FROM events e WHERE e.id = :id", nativeQuery = true)
+    Optional<String> findWatermarkById(@Param("id") Long id);
+
+    // Image version only, empty when the event doesn't exist or has no image
+    @Query("SELECT e.imageVersion FROM Event e WHERE e.id = :id AND e.imageVersion IS NOT NULL")
+    Optional<Long> findImageVersionById(@Param("id") Long id);
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.example.samajconnectbackend.repository;
+
+import com.example.samajconnectbackend.entity.ImageOwnerType;
+import com.example.samajconnectbackend.entity.ImageRendition;
+import com.example.samajconnectbackend.entity.ImageVariant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ImageRenditionRepository extends JpaRepository<ImageRendition, Long> {
+
+    Optional<ImageRendition> findByOwnerTypeAndOwnerIdAndVariant(ImageOwnerType ownerType, Long ownerId, ImageVariant variant);
+
+    // Bulk delete so the old renditions are gone before the replacements are inserted
+    @Modifying
+    @Query("DELETE FROM ImageRendition ir WHERE ir.ownerType = :ownerType AND ir.ownerId = :ownerId")
+    int deleteByOwner(@Param("ownerType") ImageOwnerType ownerType, @Param("ownerId") Long ownerId);
+}
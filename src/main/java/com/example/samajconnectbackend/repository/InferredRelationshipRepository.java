@@ -0,0 +1,21 @@
+package com.example.samajconnectbackend.repository;
+
+import com.example.samajconnectbackend.entity.InferredRelationship;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface InferredRelationshipRepository extends JpaRepository<InferredRelationship, Long> {
+
+    List<InferredRelationship> findByUserIdOrderByGenerationLevelAscRelatedUserIdAsc(Long userId);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM InferredRelationship ir WHERE ir.userId IN :userIds")
+    int deleteByUserIdIn(@Param("userIds") Collection<Long> userIds);
+}
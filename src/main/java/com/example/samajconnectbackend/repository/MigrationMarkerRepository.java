@@ -0,0 +1,9 @@
+package com.example.samajconnectbackend.repository;
+
+import com.example.samajconnectbackend.entity.MigrationMarker;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MigrationMarkerRepository extends JpaRepository<MigrationMarker, String> {
+}
@@ -2,7 +2,9 @@ package com.example.samajconnectbackend.repository;
 
 import com.example.samajconnectbackend.entity.Samaj;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -18,6 +20,29 @@ public interface SamajRepository extends JpaRepository<Samaj, Long> {
     @Query("SELECT s FROM Samaj s ORDER BY s.name ASC")
     List<Samaj> findAllOrderByName();
 
+    // Changes whenever a samaj is added, removed or updated (member count changes touch updated_at too)
+    @Query(value = "SELECT concat_ws(':', count(*), coalesce(max(updated_at)::text, '-')) FROM samajs",
+            nativeQuery = true)
+    String findAllWatermark();
+
+    @Query(value = "SELECT coalesce(updated_at::text, '-') FROM samajs WHERE id = :id", nativeQuery = true)
+    Optional<String> findWatermarkById(@Param("id") Long id);
+
     @Query("SELECT COUNT(u) FROM User u WHERE u.samaj.id = :samajId")
     int countMembersBySamajId(Long samajId);
+
+    // Atomic in the database, so concurrent registrations can't lose an increment
+    @Modifying
+    @Query("UPDATE Samaj s SET s.memberCount = COALESCE(s.memberCount, 0) + :delta, s.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE s.id = :samajId")
+    int adjustMemberCount(@Param("samajId") Long samajId, @Param("delta") int delta);
+
+    // Reset member_count wherever it has drifted from the real number of users
+    @Modifying
+    @Query(value = "UPDATE samajs s SET member_count = c.members, updated_at = now() " +
+            "FROM (SELECT s2.id, COUNT(u.id) AS members FROM samajs s2 " +
+            "LEFT JOIN users u ON u.samaj_id = s2.id GROUP BY s2.id) c " +
+            "WHERE s.id = c.id AND s.member_count IS DISTINCT FROM c.members",
+            nativeQuery = true)
+    int reconcileMemberCounts();
 }
\ No newline at end of file
@@ -3,19 +3,73 @@ package com.example.samajconnectbackend.repository;
 import com.example.samajconnectbackend.entity.RelationshipSide;
 import com.example.samajconnectbackend.entity.RelationshipType;
 import com.example.samajconnectbackend.entity.UserRelationship;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface UserRelationshipRepository extends JpaRepository<UserRelationship, Long> {
+public interface UserRelationshipRepository extends JpaRepository<UserRelationship, Long>,
+        JpaSpecificationExecutor<UserRelationship> {
 
     // Find all active relationships for a user
     List<UserRelationship> findByUserIdAndIsActiveTrue(Long userId);
 
+    // Active edges owned by members of one samaj, as [id, userId, relatedUserId, type, side, generationLevel]
+    @Query("SELECT ur.id, ur.userId, ur.relatedUserId, ur.relationshipType, ur.relationshipSide, ur.generationLevel " +
+            "FROM UserRelationship ur WHERE ur.user.samaj.id = :samajId AND ur.isActive = true")
+    List<Object[]> findActiveEdgeRowsBySamajId(@Param("samajId") Long samajId);
+
+    // Changes whenever a relationship owned by a member of the samaj is added, deactivated or updated through
+    // the application (which always bumps updated_at): row count, active count, highest id, latest update
+    @Query(value = "SELECT concat_ws(':', count(*), count(*) FILTER (WHERE ur.is_active), coalesce(max(ur.id), 0), " +
+            "coalesce(max(ur.updated_at)::text, '-')) " +
+            "FROM user_relationships ur JOIN users u ON u.id = ur.user_id WHERE u.samaj_id = :samajId",
+            nativeQuery = true)
+    String findEdgeWatermarkBySamajId(@Param("samajId") Long samajId);
+
+    // Users with at least one active relationship and no inferred relationships yet
+    @Query("SELECT DISTINCT ur.userId FROM UserRelationship ur WHERE ur.isActive = true AND NOT EXISTS " +
+            "(SELECT 1 FROM InferredRelationship ir WHERE ir.userId = ur.userId)")
+    List<Long> findActiveUserIdsWithoutInferences();
+
+    // Users reachable from a user by repeatedly following edges of the given types (e.g. FATHER/MOTHER for
+    // ancestors), at most maxDepth hops away. A path never revisits a user, and each user is reported once at
+    // its shortest depth, as [userId, viaUserId, relationshipType, depth, name, email, profileImageVersion].
+    // Rows are fetched from a server-side cursor; consume the stream inside a transaction and close it.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"))
+    @Query(nativeQuery = true, value = """
+        WITH RECURSIVE lineage (user_id, via_user_id, relationship_type, depth, path) AS (
+            SELECT ur.related_user_id, ur.user_id, ur.relationship_type, 1, ARRAY[ur.user_id, ur.related_user_id]
+            FROM user_relationships ur
+            WHERE ur.user_id = :userId AND ur.is_active = true AND ur.relationship_type IN (:types)
+            UNION ALL
+            SELECT ur.related_user_id, ur.user_id, ur.relationship_type, l.depth + 1, l.path || ur.related_user_id
+            FROM lineage l
+            JOIN user_relationships ur ON ur.user_id = l.user_id
+            WHERE ur.is_active = true AND ur.relationship_type IN (:types)
+              AND l.depth < :maxDepth AND ur.related_user_id <> ALL (l.path)
+        )
+        SELECT m.user_id, m.via_user_id, m.relationship_type, m.depth, u.name, u.email, u.profile_image_version
+        FROM (SELECT DISTINCT ON (user_id) user_id, via_user_id, relationship_type, depth
+              FROM lineage ORDER BY user_id, depth) m
+        JOIN users u ON u.id = m.user_id
+        ORDER BY m.depth, u.name, m.user_id
+        """)
+    Stream<Object[]> streamLineage(@Param("userId") Long userId,
+                                   @Param("types") Collection<String> types,
+                                   @Param("maxDepth") int maxDepth);
+
     // Find relationships by side
     List<UserRelationship> findByUserIdAndRelationshipSideAndIsActiveTrue(Long userId, RelationshipSide relationshipSide);
 
@@ -91,6 +145,7 @@ public interface UserRelationshipRepository extends JpaRepository<UserRelationsh
     List<Long> findMutualRelatives(@Param("userId1") Long userId1, @Param("userId2") Long userId2);
 
     // Delete relationship and its reverse
+    @Modifying(clearAutomatically = true)
     @Query("UPDATE UserRelationship ur SET ur.isActive = false, ur.updatedAt = CURRENT_TIMESTAMP " +
             "WHERE ((ur.userId = :userId AND ur.relatedUserId = :relatedUserId) OR " +
             "(ur.userId = :relatedUserId AND ur.relatedUserId = :userId)) AND ur.isActive = true")
@@ -0,0 +1,96 @@
+package com.example.samajconnectbackend.repository;
+
+import com.example.samajconnectbackend.dto.FamilyMemberSearchDto;
+import com.example.samajconnectbackend.entity.RelationshipSide;
+import com.example.samajconnectbackend.entity.RelationshipType;
+import com.example.samajconnectbackend.entity.User;
+import com.example.samajconnectbackend.entity.UserRelationship;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Criteria queries over user relationships
+ */
+public final class UserRelationshipSpecifications {
+
+    private UserRelationshipSpecifications() {
+    }
+
+    /**
+     * Active relationships of a user matching the family member search criteria, ordered by the related
+     * user's name. The related user and their samaj are fetched in the same query; the count query that
+     * Spring Data issues for paging gets a plain join and no ordering instead.
+     */
+    @SuppressWarnings("unchecked")
+    public static Specification<UserRelationship> familyMemberSearch(Long userId, FamilyMemberSearchDto searchDto) {
+        return (root, query, cb) -> {
+            boolean countQuery = Long.class == query.getResultType() || long.class == query.getResultType();
+
+            Join<UserRelationship, User> relatedUser;
+            if (countQuery) {
+                relatedUser = root.join("relatedUser");
+            } else {
+                relatedUser = (Join<UserRelationship, User>) root.<UserRelationship, User>fetch("relatedUser");
+                relatedUser.fetch("samaj", JoinType.LEFT);
+                query.orderBy(cb.asc(relatedUser.get("name")), cb.asc(root.get("id")));
+            }
+
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get("userId"), userId));
+            predicates.add(cb.isTrue(root.get("isActive")));
+
+            // Name / email search
+            if (searchDto.getQuery() != null && !searchDto.getQuery().isEmpty()) {
+                String pattern = "%" + searchDto.getQuery().toLowerCase(Locale.ROOT) + "%";
+                predicates.add(cb.or(
+                        cb.like(cb.lower(relatedUser.get("name")), pattern),
+                        cb.like(cb.lower(relatedUser.get("email")), pattern)
+                ));
+            }
+
+            // Relationship type filter; unknown names match nothing, as before
+            if (searchDto.getRelationshipTypes() != null && !searchDto.getRelationshipTypes().isEmpty()) {
+                List<RelationshipType> types = new ArrayList<>();
+                for (String name : searchDto.getRelationshipTypes()) {
+                    try {
+                        types.add(RelationshipType.valueOf(name));
+                    } catch (IllegalArgumentException | NullPointerException ignored) {
+                        // not a relationship type
+                    }
+                }
+                predicates.add(types.isEmpty() ? cb.disjunction() : root.get("relationshipType").in(types));
+            }
+
+            // Relationship side filter
+            if (searchDto.getRelationshipSides() != null && !searchDto.getRelationshipSides().isEmpty()) {
+                List<RelationshipSide> sides = new ArrayList<>();
+                for (String name : searchDto.getRelationshipSides()) {
+                    try {
+                        sides.add(RelationshipSide.valueOf(name));
+                    } catch (IllegalArgumentException | NullPointerException ignored) {
+                        // not a relationship side
+                    }
+                }
+                predicates.add(sides.isEmpty() ? cb.disjunction() : root.get("relationshipSide").in(sides));
+            }
+
+            // Generation level filter
+            if (searchDto.getGenerationLevels() != null && !searchDto.getGenerationLevels().isEmpty()) {
+                predicates.add(root.get("generationLevel").in(searchDto.getGenerationLevels()));
+            }
+
+            // Samaj filter
+            if (searchDto.getSamajId() != null) {
+                predicates.add(cb.equal(relatedUser.get("samaj").get("id"), searchDto.getSamajId()));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
@@ -1,20 +1,49 @@
 package com.example.samajconnectbackend.repository;
 
 import com.example.samajconnectbackend.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
 
+    /**
+     * Load a user together with their samaj
+     */
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.samaj WHERE u.id = :userId")
+    Optional<User> findWithSamajById(@Param("userId") Long userId);
+
+    /**
+     * Id of a user's samaj, empty when the user doesn't exist
+     */
+    @Query("SELECT u.samaj.id FROM User u WHERE u.id = :userId")
+    Optional<Long> findSamajIdById(@Param("userId") Long userId);
+
+    /**
+     * Load several users together with their samaj
+     */
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.samaj WHERE u.id IN :userIds")
+    List<User> findAllWithSamajByIdIn(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Profile image version only, empty when the user doesn't exist or has no image
+     */
+    @Query("SELECT u.profileImageVersion FROM User u WHERE u.id = :userId AND u.profileImageVersion IS NOT NULL")
+    Optional<Long> findProfileImageVersionById(@Param("userId") Long userId);
+
     /**
      * Search users from the same samaj excluding the current user
      */
@@ -48,12 +77,92 @@ public interface UserRepository extends JpaRepository<User, Long> {
                                                  @Param("query") String query,
                                                  Pageable pageable);
 
+    /**
+     * Trigram-ranked variant of findSamajMembersByQuery; needs the pg_trgm extension.
+     * Matches the same rows (the LIKE predicates are served by the GIN trigram indexes) but orders by similarity.
+     */
+    @Query(value = "SELECT u.* FROM users u WHERE u.samaj_id = :samajId AND u.id <> :currentUserId " +
+            "AND (lower(u.name) LIKE :pattern OR lower(u.email) LIKE :pattern " +
+            "OR lower(u.phone_number) LIKE :pattern OR lower(u.address) LIKE :pattern) " +
+            "ORDER BY GREATEST(similarity(lower(u.name), :query), similarity(lower(u.email), :query), " +
+            "similarity(coalesce(lower(u.phone_number), ''), :query), similarity(coalesce(lower(u.address), ''), :query)) DESC, " +
+            "u.name ASC, u.id ASC",
+            countQuery = "SELECT count(*) FROM users u WHERE u.samaj_id = :samajId AND u.id <> :currentUserId " +
+                    "AND (lower(u.name) LIKE :pattern OR lower(u.email) LIKE :pattern " +
+                    "OR lower(u.phone_number) LIKE :pattern OR lower(u.address) LIKE :pattern)",
+            nativeQuery = true)
+    Page<User> searchSamajMembersRanked(@Param("samajId") Long samajId,
+                                        @Param("currentUserId") Long currentUserId,
+                                        @Param("query") String query,
+                                        @Param("pattern") String pattern,
+                                        Pageable pageable);
+
+    /**
+     * Trigram-ranked variant of findSamajMembersBySamajIdAndQuery; needs the pg_trgm extension
+     */
+    @Query(value = "SELECT u.* FROM users u WHERE u.samaj_id = :samajId " +
+            "AND (lower(u.name) LIKE :pattern OR lower(u.email) LIKE :pattern " +
+            "OR lower(u.phone_number) LIKE :pattern OR lower(u.address) LIKE :pattern) " +
+            "ORDER BY GREATEST(similarity(lower(u.name), :query), similarity(lower(u.email), :query), " +
+            "similarity(coalesce(lower(u.phone_number), ''), :query), similarity(coalesce(lower(u.address), ''), :query)) DESC, " +
+            "u.name ASC, u.id ASC",
+            countQuery = "SELECT count(*) FROM users u WHERE u.samaj_id = :samajId " +
+                    "AND (lower(u.name) LIKE :pattern OR lower(u.email) LIKE :pattern " +
+                    "OR lower(u.phone_number) LIKE :pattern OR lower(u.address) LIKE :pattern)",
+            nativeQuery = true)
+    Page<User> searchMembersBySamajIdRanked(@Param("samajId") Long samajId,
+                                            @Param("query") String query,
+                                            @Param("pattern") String pattern,
+                                            Pageable pageable);
+
     /**
      * Get all users from a specific samaj by samaj ID
      */
     @Query("SELECT u FROM User u WHERE u.samaj.id = :samajId")
     Page<User> findAllMembersBySamajId(@Param("samajId") Long samajId, Pageable pageable);
 
+    /**
+     * Searchable fields of every member of a samaj, as [id, name, email, phoneNumber, profileImageVersion]
+     */
+    @Query("SELECT u.id, u.name, u.email, u.phoneNumber, u.profileImageVersion FROM User u WHERE u.samaj.id = :samajId")
+    List<Object[]> findTypeaheadRowsBySamajId(@Param("samajId") Long samajId);
+
+    /**
+     * Keyset page of a samaj's members ordered by (name, id), starting after the given key.
+     * Returns a List so no count query is issued; pass PageRequest.of(0, limit) for the limit.
+     */
+    @Query("SELECT u FROM User u WHERE u.samaj.id = :samajId " +
+            "AND (u.name > :afterName OR (u.name = :afterName AND u.id > :afterId)) " +
+            "ORDER BY u.name ASC, u.id ASC")
+    List<User> findMembersBySamajIdAfter(@Param("samajId") Long samajId,
+                                         @Param("afterName") String afterName,
+                                         @Param("afterId") Long afterId,
+                                         Pageable pageable);
+
+    /**
+     * Keyset page of a samaj's members matching a query, ordered by (name, id)
+     */
+    @Query("SELECT u FROM User u WHERE u.samaj.id = :samajId " +
+            "AND (LOWER(u.name) LIKE LOWER(CONCAT('%', :query, '%')) " +
+            "OR LOWER(u.email) LIKE LOWER(CONCAT('%', :query, '%')) " +
+            "OR LOWER(u.phoneNumber) LIKE LOWER(CONCAT('%', :query, '%')) " +
+            "OR LOWER(u.address) LIKE LOWER(CONCAT('%', :query, '%'))) " +
+            "AND (u.name > :afterName OR (u.name = :afterName AND u.id > :afterId)) " +
+            "ORDER BY u.name ASC, u.id ASC")
+    List<User> findMembersBySamajIdAndQueryAfter(@Param("samajId") Long samajId,
+                                                 @Param("query") String query,
+                                                 @Param("afterName") String afterName,
+                                                 @Param("afterId") Long afterId,
+                                                 Pageable pageable);
+
+    /**
+     * All members of a samaj ordered by (name, id), read through a server-side cursor.
+     * Consume the stream inside a transaction and close it.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"))
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.samaj WHERE u.samaj.id = :samajId ORDER BY u.name ASC, u.id ASC")
+    Stream<User> streamMembersBySamajId(@Param("samajId") Long samajId);
+
     /**
      * Get all users from a specific samaj by samaj ID (List version)
      */
@@ -98,4 +207,23 @@ public interface UserRepository extends JpaRepository<User, Long> {
             "rr.requesterUserId = :targetUserId AND rr.targetUserId = :currentUserId AND " +
             "rr.status = 'PENDING'")
     boolean hasReceivedRequestFrom(@Param("currentUserId") Long currentUserId, @Param("targetUserId") Long targetUserId);
+
+    /**
+     * Of the given users, those with an active relationship to the current user (in either direction)
+     */
+    @Query("SELECT DISTINCT CASE WHEN ur.userId = :currentUserId THEN ur.relatedUserId ELSE ur.userId END " +
+            "FROM UserRelationship ur WHERE ur.isActive = true AND (" +
+            "(ur.userId = :currentUserId AND ur.relatedUserId IN :userIds) OR " +
+            "(ur.relatedUserId = :currentUserId AND ur.userId IN :userIds))")
+    List<Long> findRelatedUserIdsAmong(@Param("currentUserId") Long currentUserId,
+                                       @Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Pending requests between the current user and any of the given users, as [requesterUserId, targetUserId]
+     */
+    @Query("SELECT rr.requesterUserId, rr.targetUserId FROM RelationshipRequest rr WHERE rr.status = 'PENDING' AND (" +
+            "(rr.requesterUserId = :currentUserId AND rr.targetUserId IN :userIds) OR " +
+            "(rr.targetUserId = :currentUserId AND rr.requesterUserId IN :userIds))")
+    List<Object[]> findPendingRequestPairsAmong(@Param("currentUserId") Long currentUserId,
+                                                @Param("userIds") Collection<Long> userIds);
 }
\ No newline at end of file
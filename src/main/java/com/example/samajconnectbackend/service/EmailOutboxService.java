@@ -0,0 +1,141 @@
+package com.example.samajconnectbackend.service;
+
+import com.example.samajconnectbackend.entity.EmailOutboxMessage;
+import com.example.samajconnectbackend.entity.EmailOutboxStatus;
+import com.example.samajconnectbackend.event.EmailQueuedEvent;
+import com.example.samajconnectbackend.repository.EmailOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Database side of the email outbox: queueing messages, claiming due ones for a worker and recording
+ * how each attempt went. Failed attempts are retried with exponential backoff. Bodies can hold one-time
+ * codes, so finished messages are deleted after a short retention period.
+ */
+@Service
+public class EmailOutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxService.class);
+
+    static final Duration FIRST_RETRY_DELAY = Duration.ofSeconds(30);
+    static final Duration MAX_RETRY_DELAY = Duration.ofHours(1);
+
+    // How long a claimed batch is reserved for its worker before others may take it over
+    private static final Duration CLAIM_LEASE = Duration.ofMinutes(5);
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.mail.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.mail.outbox.sent-retention-ms:3600000}")
+    private long sentRetentionMillis;
+
+    @Value("${app.mail.outbox.failed-retention-ms:86400000}")
+    private long failedRetentionMillis;
+
+    /**
+     * Queue a message in the caller's transaction; it is sent once that transaction commits
+     */
+    @Transactional
+    public void enqueue(String recipient, String subject, String body) {
+        emailOutboxRepository.save(new EmailOutboxMessage(recipient, subject, body, LocalDateTime.now()));
+        eventPublisher.publishEvent(new EmailQueuedEvent());
+    }
+
+    /**
+     * Claim up to batchSize due messages for the calling worker
+     */
+    @Transactional
+    public List<EmailOutboxMessage> claimBatch(int batchSize) {
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailOutboxMessage> batch = emailOutboxRepository.lockDueBatch(now, batchSize);
+        for (EmailOutboxMessage message : batch) {
+            message.setStatus(EmailOutboxStatus.SENDING);
+            message.setNextAttemptAt(now.plus(CLAIM_LEASE));
+        }
+        return batch;
+    }
+
+    /**
+     * Record the outcome of sending a claimed batch; failures holds the error per failed message ID
+     */
+    @Transactional
+    public void recordResults(List<EmailOutboxMessage> batch, Map<Long, Exception> failures) {
+        LocalDateTime now = LocalDateTime.now();
+        for (EmailOutboxMessage claimed : batch) {
+            EmailOutboxMessage message = emailOutboxRepository.findById(claimed.getId()).orElse(null);
+            if (message == null) {
+                continue;
+            }
+
+            message.setAttempts(message.getAttempts() + 1);
+            Exception failure = failures.get(message.getId());
+            if (failure == null) {
+                message.setStatus(EmailOutboxStatus.SENT);
+                message.setSentAt(now);
+                message.setLastError(null);
+            } else if (message.getAttempts() >= maxAttempts) {
+                message.setStatus(EmailOutboxStatus.FAILED);
+                message.setLastError(truncate(failure.getMessage()));
+                logger.error("Giving up on email {} to {} after {} attempts: {}",
+                        message.getId(), message.getRecipient(), message.getAttempts(), failure.getMessage());
+            } else {
+                message.setStatus(EmailOutboxStatus.PENDING);
+                message.setNextAttemptAt(now.plus(retryDelay(message.getAttempts())));
+                message.setLastError(truncate(failure.getMessage()));
+                logger.warn("Email {} to {} failed (attempt {}), will retry: {}",
+                        message.getId(), message.getRecipient(), message.getAttempts(), failure.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Delete sent messages older than the sent retention period, and messages given up on that were queued
+     * longer ago than the failed retention period. Returns the number of messages deleted.
+     */
+    @Transactional
+    public int purgeFinished() {
+        LocalDateTime now = LocalDateTime.now();
+        return emailOutboxRepository.deleteSentBefore(now.minus(Duration.ofMillis(sentRetentionMillis)))
+                + emailOutboxRepository.deleteFailedCreatedBefore(now.minus(Duration.ofMillis(failedRetentionMillis)));
+    }
+
+    /**
+     * Number of messages still waiting to be sent
+     */
+    @Transactional(readOnly = true)
+    public long countQueued() {
+        return emailOutboxRepository.countByStatusIn(List.of(EmailOutboxStatus.PENDING, EmailOutboxStatus.SENDING));
+    }
+
+    /**
+     * Delay before the next attempt after the given number of failed ones: 30s, 1m, 2m, ... up to an hour
+     */
+    static Duration retryDelay(int failedAttempts) {
+        int doublings = Math.min(Math.max(failedAttempts - 1, 0), 20);
+        Duration delay = FIRST_RETRY_DELAY.multipliedBy(1L << doublings);
+        return delay.compareTo(MAX_RETRY_DELAY) > 0 ? MAX_RETRY_DELAY : delay;
+    }
+
+    private static String truncate(String error) {
+        if (error == null) {
+            return null;
+        }
+        return error.length() > 1000 ? error.substring(0, 1000) : error;
+    }
+}
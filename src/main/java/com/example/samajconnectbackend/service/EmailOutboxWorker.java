@@ -0,0 +1,129 @@
+package com.example.samajconnectbackend.service;
+
+import com.example.samajconnectbackend.entity.EmailOutboxMessage;
+import com.example.samajconnectbackend.event.EmailQueuedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the email outbox on a small thread pool. Each worker claims a batch of due messages
+ * (SKIP LOCKED, so workers never wait on each other), sends it over pooled SMTP connections and
+ * records the results. Workers are woken after each commit that queued mail, and by a periodic poll
+ * that picks up retries. Finished messages are purged on a separate schedule.
+ */
+@Component
+public class EmailOutboxWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxWorker.class);
+
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.mail.outbox.worker-threads:2}")
+    private int workerThreads;
+
+    @Value("${app.mail.outbox.batch-size:20}")
+    private int batchSize;
+
+    private ThreadPoolExecutor executor;
+
+    // Refreshed on every poll rather than on every metrics scrape
+    private final AtomicLong queuedMessages = new AtomicLong();
+
+    @PostConstruct
+    void start() {
+        meterRegistry.gauge("email.outbox.depth", Tags.empty(), queuedMessages);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        // A wake-up that finds the queue full is dropped: the drains already queued will see its mail
+        executor = new ThreadPoolExecutor(workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workerThreads),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "email-outbox-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmailQueued(EmailQueuedEvent event) {
+        wakeUp();
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-interval-ms:10000}")
+    public void poll() {
+        try {
+            queuedMessages.set(emailOutboxService.countQueued());
+        } catch (RuntimeException e) {
+            logger.warn("Could not count queued emails: {}", e.getMessage());
+        }
+        wakeUp();
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.outbox.purge-interval-ms:600000}")
+    public void purge() {
+        try {
+            int purged = emailOutboxService.purgeFinished();
+            if (purged > 0) {
+                logger.debug("Purged {} finished emails from the outbox", purged);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not purge the email outbox: {}", e.getMessage());
+        }
+    }
+
+    public void wakeUp() {
+        executor.execute(this::drain);
+    }
+
+    private void drain() {
+        try {
+            while (true) {
+                List<EmailOutboxMessage> batch = emailOutboxService.claimBatch(batchSize);
+                if (batch.isEmpty()) {
+                    return;
+                }
+
+                Map<Long, Exception> failures = emailService.sendAll(batch);
+                emailOutboxService.recordResults(batch, failures);
+
+                if (batch.size() < batchSize) {
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            // Claimed messages become due again when their lease runs out
+            logger.error("Email outbox worker failed: {}", e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+}
@@ -1,39 +1,91 @@
 package com.example.samajconnectbackend.service;
 
+import com.example.samajconnectbackend.entity.EmailOutboxMessage;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.MailException;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 @Service
 public class EmailService {
 
     private static final Logger logger = LoggerFactory.getLogger(EmailService.class);
 
+    private static final String OTP_SUBJECT = "Email Verification - OTP Code";
+
     @Autowired
     private JavaMailSender mailSender;
 
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+
+    @Autowired
+    private SmtpTransportPool smtpTransportPool;
+
+    @Autowired
+    private SendRateLimiter sendRateLimiter;
+
     @Value("${spring.mail.username}")
     private String fromEmail;
 
-    public boolean sendOtpEmail(String toEmail, String otpCode, String userName) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(toEmail);
-            message.setSubject("Email Verification - OTP Code");
-            message.setText(buildOtpEmailBody(otpCode, userName));
-
-            mailSender.send(message);
-            logger.info("OTP email sent successfully to: {}", toEmail);
-            return true;
-        } catch (Exception e) {
-            logger.error("Failed to send OTP email to {}: {}", toEmail, e.getMessage());
-            return false;
+    /**
+     * Queue an OTP email in the caller's transaction; EmailOutboxWorker sends it after the commit
+     */
+    public void queueOtpEmail(String toEmail, String otpCode, String userName) {
+        emailOutboxService.enqueue(toEmail, OTP_SUBJECT, buildOtpEmailBody(otpCode, userName));
+    }
+
+    /**
+     * Send outbox messages over pooled SMTP connections, at no more than the configured rate.
+     * Returns the error for each message that could not be sent, keyed by outbox ID; empty when
+     * everything went out.
+     */
+    public Map<Long, Exception> sendAll(List<EmailOutboxMessage> messages) {
+        Map<Long, Exception> failures = new HashMap<>();
+        for (int i = 0; i < messages.size(); i++) {
+            EmailOutboxMessage message = messages.get(i);
+            try {
+                sendRateLimiter.acquire();
+                smtpTransportPool.send(toMimeMessage(message));
+            } catch (InterruptedException e) {
+                // Shutting down: this and the remaining messages are retried later
+                Thread.currentThread().interrupt();
+                for (int j = i; j < messages.size(); j++) {
+                    failures.put(messages.get(j).getId(), e);
+                }
+                break;
+            } catch (MessagingException | MailException e) {
+                failures.put(message.getId(), e);
+            }
         }
+
+        if (failures.isEmpty()) {
+            logger.info("Sent {} email(s)", messages.size());
+        } else {
+            logger.warn("Sent {} of {} email(s)", messages.size() - failures.size(), messages.size());
+        }
+        return failures;
+    }
+
+    private MimeMessage toMimeMessage(EmailOutboxMessage message) throws MessagingException {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, StandardCharsets.UTF_8.name());
+        helper.setFrom(fromEmail);
+        helper.setTo(message.getRecipient());
+        helper.setSubject(message.getSubject());
+        helper.setText(message.getBody());
+        return mimeMessage;
     }
 
     private String buildOtpEmailBody(String otpCode, String userName) {
@@ -48,4 +100,4 @@ public class EmailService {
                 userName, otpCode
         );
     }
-}
\ No newline at end of file
+}
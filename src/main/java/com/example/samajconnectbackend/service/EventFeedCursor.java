@@ -0,0 +1,65 @@
+package com.example.samajconnectbackend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque cursor for the newest-first event feed, keyed on (eventDate, id). Its content is the sort key
+ * of the last event returned, so the next page starts strictly before that event.
+ */
+final class EventFeedCursor {
+
+    /** Latest timestamp Postgres stores comfortably; used as the feed's upper bound when none is given */
+    static final LocalDateTime MAX_DATE = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    /** Earliest event date considered when no lower bound is given */
+    static final LocalDateTime MIN_DATE = LocalDateTime.of(1900, 1, 1, 0, 0);
+
+    private final LocalDateTime eventDate;
+    private final Long id;
+
+    EventFeedCursor(LocalDateTime eventDate, Long id) {
+        this.eventDate = eventDate;
+        this.id = id;
+    }
+
+    /**
+     * Cursor for the first page: every event up to and including the given date
+     */
+    static EventFeedCursor startingAt(LocalDateTime to) {
+        return new EventFeedCursor(to, Long.MAX_VALUE);
+    }
+
+    LocalDateTime getEventDate() {
+        return eventDate;
+    }
+
+    Long getId() {
+        return id;
+    }
+
+    String encode() {
+        String raw = id + ":" + eventDate;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor from a client
+     */
+    static EventFeedCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            if (separator < 1) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new EventFeedCursor(LocalDateTime.parse(raw.substring(separator + 1)),
+                    Long.parseLong(raw.substring(0, separator)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // Also covers NumberFormatException and malformed Base64
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
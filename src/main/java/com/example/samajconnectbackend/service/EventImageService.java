@@ -0,0 +1,104 @@
+package com.example.samajconnectbackend.service;
+
+import com.example.samajconnectbackend.dto.ImageResource;
+import com.example.samajconnectbackend.entity.Event;
+import com.example.samajconnectbackend.entity.ImageOwnerType;
+import com.example.samajconnectbackend.entity.ImageVariant;
+import com.example.samajconnectbackend.repository.EventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.Optional;
+
+@Service
+public class EventImageService {
+
+    private static final String IMAGE_PATH = "/api/events/%d/image?size=%s&v=%d";
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private ImageProcessingService imageProcessingService;
+
+    @Autowired
+    private ImageStorageService imageStorageService;
+
+    /**
+     * Build the image URL for an event at the given size, or null if the event has no image
+     */
+    public String imageUrl(Event event, ImageVariant variant) {
+        if (event == null || !hasImage(event)) {
+            return null;
+        }
+        return String.format(IMAGE_PATH, event.getId(), variant.getValue(), imageVersion(event));
+    }
+
+    /**
+     * Same as {@link #imageUrl(Event, ImageVariant)} for callers that only loaded the ID and image version
+     */
+    public String imageUrl(Long eventId, Long imageVersion, ImageVariant variant) {
+        if (eventId == null || imageVersion == null) {
+            return null;
+        }
+        return String.format(IMAGE_PATH, eventId, variant.getValue(), imageVersion);
+    }
+
+    public boolean hasImage(Event event) {
+        return event.getImageVersion() != null;
+    }
+
+    /**
+     * Validate an uploaded image; throws IllegalArgumentException for anything we can't serve
+     */
+    public Map<ImageVariant, ImageProcessingService.ProcessedImage> prepareImage(byte[] source) {
+        return imageProcessingService.process(source);
+    }
+
+    /**
+     * Store prepared renditions for a saved event; the caller saves the event afterwards
+     */
+    public void storeImage(Event event, Map<ImageVariant, ImageProcessingService.ProcessedImage> renditions) {
+        imageStorageService.replaceRenditions(ImageOwnerType.EVENT, event.getId(), renditions);
+        event.setImageVersion(ImageStorageService.nextVersion(event.getImageVersion()));
+    }
+
+    /**
+     * Remove the event's image; the caller saves the event afterwards
+     */
+    public void removeImage(Event event) {
+        imageStorageService.deleteRenditions(ImageOwnerType.EVENT, event.getId());
+        event.setImageVersion(null);
+    }
+
+    /**
+     * Drop the renditions of an event that is being deleted
+     */
+    public void deleteImages(Long eventId) {
+        imageStorageService.deleteRenditions(ImageOwnerType.EVENT, eventId);
+    }
+
+    /**
+     * Load one rendition of an event image together with its ETag/Last-Modified validators
+     */
+    @Transactional(readOnly = true)
+    public Optional<ImageResource> loadImage(Long eventId, ImageVariant variant) {
+        Optional<Long> version = eventRepository.findImageVersionById(eventId);
+        if (version.isEmpty()) {
+            return Optional.empty();
+        }
+
+        String eTag = "event-" + eventId + "-" + variant.getValue() + "-" + version.get();
+        return imageStorageService.findRendition(ImageOwnerType.EVENT, eventId, variant)
+                .map(rendition -> new ImageResource(rendition.getData(), rendition.getContentType(), eTag, version.get()));
+    }
+
+    /**
+     * Version of the event's image, i.e. the epoch millis (whole seconds) of the last upload
+     */
+    public long imageVersion(Event event) {
+        return event.getImageVersion() != null ? event.getImageVersion() : 0L;
+    }
+}
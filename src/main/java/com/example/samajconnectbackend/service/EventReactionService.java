@@ -1,15 +1,20 @@
 package com.example.samajconnectbackend.service;
+import com.example.samajconnectbackend.dto.EventReactionSummary;
 import com.example.samajconnectbackend.dto.ReactionStats;
-import com.example.samajconnectbackend.entity.Event;
 import com.example.samajconnectbackend.entity.EventReaction;
 import com.example.samajconnectbackend.entity.ReactionType;
 import com.example.samajconnectbackend.repository.EventReactionRepository;
-import com.example.samajconnectbackend.repository.EventRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class EventReactionService {
@@ -18,78 +23,73 @@ public class EventReactionService {
     private EventReactionRepository eventReactionRepository;
 
     @Autowired
-    private EventRepository eventRepository;
+    private ReactionCounterAggregator reactionCounterAggregator;
 
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+
+    /**
+     * Toggle a user's reaction: no reaction adds it, the same reaction removes it, and a different one
+     * replaces it. The row is locked (or inserted with ON CONFLICT DO NOTHING) before it is changed,
+     * so concurrent taps by the same user apply one after another instead of adding duplicate rows.
+     */
     @Transactional
     public EventReaction addOrUpdateReaction(Long userId, Long eventId, String reactionTypeStr) {
         ReactionType reactionType = ReactionType.valueOf(reactionTypeStr.toUpperCase());
 
-        Optional<EventReaction> existingReaction = eventReactionRepository
-                .findByUserIdAndEventId(userId, eventId);
+        // The change is only known after the row is locked, so load the counters first
+        reactionCounterAggregator.ensureLoaded(eventId);
+
+        for (int attempt = 0; attempt < MAX_WRITE_ATTEMPTS; attempt++) {
+            Optional<String> existing = eventReactionRepository.lockReactionType(userId, eventId);
+
+            if (existing.isPresent()) {
+                ReactionType currentType = ReactionType.valueOf(existing.get());
 
-        if (existingReaction.isPresent()) {
-            EventReaction reaction = existingReaction.get();
+                if (currentType == reactionType) {
+                    // Same reaction - remove it (toggle off)
+                    eventReactionRepository.deleteReaction(userId, eventId);
+                    reactionCounterAggregator.recordChange(eventId, currentType, null);
+                    return null; // Indicates reaction was removed
+                }
 
-            if (reaction.getReactionType() == reactionType) {
-                // Same reaction - remove it (toggle off)
-                eventReactionRepository.delete(reaction);
-                return null; // Indicates reaction was removed
-            } else {
                 // Different reaction - update it
-                reaction.setReactionType(reactionType);
-                return eventReactionRepository.save(reaction);
+                eventReactionRepository.updateReactionType(userId, eventId, reactionType.name());
+                reactionCounterAggregator.recordChange(eventId, currentType, reactionType);
+                return eventReactionRepository.findByUserIdAndEventId(userId, eventId).orElse(null);
+            }
+
+            // No existing reaction - create one, unless a concurrent request just did; then lock theirs and retry
+            if (eventReactionRepository.insertIfAbsent(userId, eventId, reactionType.name()) > 0) {
+                reactionCounterAggregator.recordChange(eventId, null, reactionType);
+                return eventReactionRepository.findByUserIdAndEventId(userId, eventId).orElse(null);
             }
-        } else {
-            // No existing reaction - create new one
-            EventReaction newReaction = new EventReaction(userId, eventId, reactionType);
-            return eventReactionRepository.save(newReaction);
         }
+
+        throw new IllegalStateException("Reaction kept changing concurrently, please try again");
     }
 
     @Transactional
     public void removeReaction(Long userId, Long eventId) {
-        Optional<EventReaction> reaction =
-                eventReactionRepository.findByUserIdAndEventId(userId, eventId);
+        reactionCounterAggregator.ensureLoaded(eventId);
 
-        if (reaction.isPresent()) {
-            ReactionType oldType = reaction.get().getReactionType();
-            eventReactionRepository.delete(reaction.get());
-            updateEventCounts(eventId, null, oldType);
+        Optional<String> existing = eventReactionRepository.lockReactionType(userId, eventId);
+        if (existing.isPresent()) {
+            eventReactionRepository.deleteReaction(userId, eventId);
+            reactionCounterAggregator.recordChange(eventId, ReactionType.valueOf(existing.get()), null);
         }
     }
 
-    private void updateEventCounts(Long eventId, ReactionType newType, ReactionType oldType) {
-        Event event = eventRepository.findById(eventId)
-                .orElseThrow(() -> new RuntimeException("Event not found"));
-
-        // Decrease old count
-        if (oldType == ReactionType.LIKE) {
-            event.setLikeCount(Math.max(0, event.getLikeCount() - 1));
-        } else if (oldType == ReactionType.DISLIKE) {
-            event.setDislikeCount(Math.max(0, event.getDislikeCount() - 1));
-        }
-
-        // Increase new count
-        if (newType == ReactionType.LIKE) {
-            event.setLikeCount(event.getLikeCount() + 1);
-        } else if (newType == ReactionType.DISLIKE) {
-            event.setDislikeCount(event.getDislikeCount() + 1);
-        }
-
-        eventRepository.save(event);
-    }
-
     public ReactionStats getReactionStats(Long eventId) {
-        long likeCount = eventReactionRepository.countByEventIdAndReactionType(eventId, ReactionType.LIKE);
-        long dislikeCount = eventReactionRepository.countByEventIdAndReactionType(eventId, ReactionType.DISLIKE);
+        long likeCount = reactionCounterAggregator.getLikeCount(eventId);
+        long dislikeCount = reactionCounterAggregator.getDislikeCount(eventId);
 
         return new ReactionStats(likeCount, dislikeCount);
     }
 
     public ReactionStats getReactionStatsWithUserReaction(Long eventId, Long userId) {
         // Get total counts
-        long likeCount = eventReactionRepository.countByEventIdAndReactionType(eventId, ReactionType.LIKE);
-        long dislikeCount = eventReactionRepository.countByEventIdAndReactionType(eventId, ReactionType.DISLIKE);
+        long likeCount = reactionCounterAggregator.getLikeCount(eventId);
+        long dislikeCount = reactionCounterAggregator.getDislikeCount(eventId);
 
         // Get user's specific reaction (if any)
         EventReaction userReaction = null;
@@ -104,6 +104,35 @@ public class EventReactionService {
         return new ReactionStats(likeCount, dislikeCount, userReaction);
     }
 
+    /**
+     * Counts and the user's reaction for a batch of events: at most one grouped count query
+     * for events whose counts aren't in memory yet, plus one lookup of the user's reactions
+     */
+    @Transactional(readOnly = true)
+    public List<EventReactionSummary> getReactionStatsForEvents(List<Long> eventIds, Long userId) {
+        Set<Long> ids = new LinkedHashSet<>(eventIds);
+        ids.remove(null);
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, long[]> counts = reactionCounterAggregator.getCounts(ids);
+
+        Map<Long, ReactionType> userReactions = new HashMap<>();
+        if (userId != null) {
+            for (Object[] row : eventReactionRepository.findReactionTypesByUserIdAndEventIds(userId, ids)) {
+                userReactions.put((Long) row[0], (ReactionType) row[1]);
+            }
+        }
+
+        List<EventReactionSummary> summaries = new ArrayList<>();
+        for (Long eventId : ids) {
+            long[] eventCounts = counts.get(eventId);
+            summaries.add(new EventReactionSummary(eventId, eventCounts[0], eventCounts[1], userReactions.get(eventId)));
+        }
+        return summaries;
+    }
+
     public Optional<ReactionType> getUserReaction(Long userId, Long eventId) {
         return eventReactionRepository.findReactionTypeByUserIdAndEventId(userId, eventId);
     }
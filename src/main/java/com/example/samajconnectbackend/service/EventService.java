@@ -1,18 +1,30 @@
 package com.example.samajconnectbackend.service;
 
 import com.example.samajconnectbackend.dto.EventDTO;
+import com.example.samajconnectbackend.dto.EventFeedResponse;
+import com.example.samajconnectbackend.dto.EventSummaryDto;
 import com.example.samajconnectbackend.entity.Event;
+import com.example.samajconnectbackend.entity.ImageVariant;
+import com.example.samajconnectbackend.entity.ReactionType;
 import com.example.samajconnectbackend.repository.EventRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class EventService {
@@ -22,6 +34,18 @@ public class EventService {
     @Autowired
     private EventRepository eventRepository;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private EventImageService eventImageService;
+
+    @Autowired
+    private ReactionCounterAggregator reactionCounterAggregator;
+
+    @Autowired
+    private UpcomingEventsCache upcomingEventsCache;
+
     /**
      * Create a new event
      */
@@ -56,19 +80,28 @@ public class EventService {
             event.setCreatedBy(eventDTO.getCreatedBy());
             event.setSamajId(eventDTO.getSamajId());
 
-            // Handle image data
+            // Validate the image and render its sizes before anything is written
+            Map<ImageVariant, ImageProcessingService.ProcessedImage> renditions = null;
             if (eventDTO.getImageBase64() != null && !eventDTO.getImageBase64().isEmpty()) {
-                event.setImgData(eventDTO.getImageBytes());
+                renditions = eventImageService.prepareImage(eventDTO.getImageBytes());
             }
 
             // Save event
             Event savedEvent = eventRepository.save(event);
 
+            // Renditions are keyed by event ID, so they can only be stored once the event has one
+            if (renditions != null) {
+                eventImageService.storeImage(savedEvent, renditions);
+                savedEvent = eventRepository.save(savedEvent);
+            }
+
+            upcomingEventsCache.evictAfterCommit(savedEvent.getSamajId());
+
             logger.info("Event created successfully with ID: {} for Samaj ID: {}",
                     savedEvent.getId(), savedEvent.getSamajId());
 
             // Convert back to DTO and return
-            return convertToDTO(savedEvent);
+            return convertToDTO(savedEvent, ImageVariant.MEDIUM);
 
         } catch (IllegalArgumentException e) {
             logger.error("Validation error creating event: {}", e.getMessage());
@@ -80,29 +113,89 @@ public class EventService {
     }
 
     /**
-     * Get all events by samaj ID
+     * Pass every event of a samaj, newest first, to action, with reaction counts and the viewer's own
+     * reaction (viewerId may be null). Rows are read through a cursor and detached once handled, so
+     * memory stays flat however many events the samaj has. Returns the number of events.
+     */
+    @Transactional(readOnly = true)
+    public int forEachEventBySamajId(Long samajId, Long viewerId, Consumer<EventDTO> action) {
+        int count = 0;
+        try (Stream<Object[]> rows = eventRepository.streamBySamajIdWithViewerReaction(samajId, viewerId)) {
+            Iterator<Object[]> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                Object[] row = iterator.next();
+                Event event = (Event) row[0];
+                EventDTO dto = convertToDTO(event, ImageVariant.SMALL);
+                dto.setCurrentUserReaction((ReactionType) row[1]);
+                action.accept(dto);
+                entityManager.detach(event);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Get one page of a samaj's events, newest first, optionally limited to events between from and to.
+     * Pass the nextCursor of the previous page to continue.
      */
-    public List<EventDTO> getEventsBySamajId(Long samajId) {
+    @Transactional(readOnly = true)
+    public EventFeedResponse getEventFeed(Long samajId, LocalDateTime from, LocalDateTime to, String cursor, int size) {
+        LocalDateTime lower = from != null ? from : EventFeedCursor.MIN_DATE;
+        LocalDateTime upper = to != null ? to : EventFeedCursor.MAX_DATE;
+        if (lower.isAfter(upper)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+
+        EventFeedCursor before = (cursor == null || cursor.isBlank())
+                ? EventFeedCursor.startingAt(upper)
+                : EventFeedCursor.decode(cursor);
+
         try {
-            List<Event> events = eventRepository.findBySamajIdOrderByEventDateDesc(samajId);
-            return events.stream()
-                    .map(this::convertToDTO)
-                    .collect(Collectors.toList());
+            // One extra row tells us whether there is a next page
+            List<EventSummaryDto> events = eventRepository.findFeedPage(
+                    samajId, lower, upper, before.getEventDate(), before.getId(), PageRequest.of(0, size + 1));
+
+            boolean hasNext = events.size() > size;
+            if (hasNext) {
+                events = events.subList(0, size);
+            }
+
+            for (EventSummaryDto event : events) {
+                event.setImageUrl(eventImageService.imageUrl(event.getId(), event.getImageVersion(), ImageVariant.SMALL));
+                long[] counts = reactionCounterAggregator.getCounts(
+                        event.getId(), event.getLikeCount(), event.getDislikeCount());
+                event.setLikeCount(counts[0]);
+                event.setDislikeCount(counts[1]);
+            }
+
+            String nextCursor = null;
+            if (hasNext) {
+                EventSummaryDto last = events.get(events.size() - 1);
+                nextCursor = new EventFeedCursor(last.getEventDate(), last.getId()).encode();
+            }
+            return new EventFeedResponse(new ArrayList<>(events), nextCursor, hasNext);
         } catch (Exception e) {
-            logger.error("Error retrieving events for Samaj ID {}: {}", samajId, e.getMessage());
+            logger.error("Error retrieving event feed for Samaj ID {}: {}", samajId, e.getMessage());
             throw new RuntimeException("Failed to retrieve events");
         }
     }
 
     /**
-     * Get upcoming events by samaj ID
+     * Get upcoming events by samaj ID, from the upcoming events cache; reaction counts are always current
      */
-    public List<EventDTO> getUpcomingEventsBySamajId(Long samajId) {
+    public List<EventSummaryDto> getUpcomingEventsBySamajId(Long samajId) {
         try {
-            List<Event> events = eventRepository.findUpcomingEventsBySamajId(samajId);
-            return events.stream()
-                    .map(this::convertToDTO)
-                    .collect(Collectors.toList());
+            List<EventSummaryDto> events = new ArrayList<>();
+            for (EventSummaryDto cached : upcomingEventsCache.get(samajId)) {
+                EventSummaryDto event = new EventSummaryDto(cached);
+                long[] counts = reactionCounterAggregator.getCounts(
+                        event.getId(), event.getLikeCount(), event.getDislikeCount());
+                event.setLikeCount(counts[0]);
+                event.setDislikeCount(counts[1]);
+                events.add(event);
+            }
+            return events;
         } catch (Exception e) {
             logger.error("Error retrieving upcoming events for Samaj ID {}: {}", samajId, e.getMessage());
             throw new RuntimeException("Failed to retrieve upcoming events");
@@ -116,7 +209,7 @@ public class EventService {
         try {
             List<Event> events = eventRepository.findRecentEventsBySamajId(samajId);
             return events.stream()
-                    .map(this::convertToDTO)
+                    .map(event -> convertToDTO(event, ImageVariant.SMALL))
                     .collect(Collectors.toList());
         } catch (Exception e) {
             logger.error("Error retrieving recent events for Samaj ID {}: {}", samajId, e.getMessage());
@@ -130,7 +223,7 @@ public class EventService {
     public EventDTO getEventById(Long id) {
         try {
             Optional<Event> eventOptional = eventRepository.findById(id);
-            return eventOptional.map(this::convertToDTO).orElse(null);
+            return eventOptional.map(event -> convertToDTO(event, ImageVariant.MEDIUM)).orElse(null);
         } catch (Exception e) {
             logger.error("Error retrieving event with ID {}: {}", id, e.getMessage());
             throw new RuntimeException("Failed to retrieve event");
@@ -171,17 +264,19 @@ public class EventService {
             // Handle image update
             if (eventDTO.getImageBase64() != null) {
                 if (eventDTO.getImageBase64().isEmpty()) {
-                    existingEvent.setImgData(null); // Remove image
+                    eventImageService.removeImage(existingEvent); // Remove image
                 } else {
-                    existingEvent.setImgData(eventDTO.getImageBytes()); // Update image
+                    // Update image; validation fails here before the old renditions are replaced
+                    eventImageService.storeImage(existingEvent, eventImageService.prepareImage(eventDTO.getImageBytes()));
                 }
             }
 
             Event updatedEvent = eventRepository.save(existingEvent);
+            upcomingEventsCache.evictAfterCommit(updatedEvent.getSamajId());
 
             logger.info("Event updated successfully with ID: {}", updatedEvent.getId());
 
-            return convertToDTO(updatedEvent);
+            return convertToDTO(updatedEvent, ImageVariant.MEDIUM);
 
         } catch (IllegalArgumentException e) {
             logger.error("Validation error updating event with ID {}: {}", id, e.getMessage());
@@ -198,11 +293,15 @@ public class EventService {
     @Transactional
     public boolean deleteEvent(Long id) {
         try {
-            if (!eventRepository.existsById(id)) {
+            Optional<Event> eventOptional = eventRepository.findById(id);
+            if (eventOptional.isEmpty()) {
                 throw new IllegalArgumentException("Event not found with ID: " + id);
             }
 
-            eventRepository.deleteById(id);
+            eventImageService.deleteImages(id);
+            eventRepository.delete(eventOptional.get());
+            upcomingEventsCache.evictAfterCommit(eventOptional.get().getSamajId());
+            reactionCounterAggregator.forgetAfterCommit(id);
             logger.info("Event deleted successfully with ID: {}", id);
             return true;
 
@@ -218,8 +317,8 @@ public class EventService {
     /**
      * Convert Event entity to EventDTO
      */
-    private EventDTO convertToDTO(Event event) {
-        return new EventDTO(
+    private EventDTO convertToDTO(Event event, ImageVariant imageVariant) {
+        EventDTO dto = new EventDTO(
                 event.getId(),
                 event.getEventTitle(),
                 event.getEventDescription(),
@@ -228,7 +327,15 @@ public class EventService {
                 event.getCreatedAt(),
                 event.getCreatedBy(),
                 event.getSamajId(),
-                event.getImgData()
+                eventImageService.imageUrl(event, imageVariant)
         );
+
+        // Stored counts lag behind by up to one flush; the aggregator fills in the difference
+        long[] counts = reactionCounterAggregator.getCounts(event.getId(),
+                event.getLikeCount() != null ? event.getLikeCount() : 0,
+                event.getDislikeCount() != null ? event.getDislikeCount() : 0);
+        dto.setLikeCount(counts[0]);
+        dto.setDislikeCount(counts[1]);
+        return dto;
     }
 }
@@ -2,18 +2,26 @@ package com.example.samajconnectbackend.service;
 
 import com.example.samajconnectbackend.dto.*;
 import com.example.samajconnectbackend.entity.*;
+import com.example.samajconnectbackend.event.KinshipChangedEvent;
+import com.example.samajconnectbackend.repository.InferredRelationshipRepository;
 import com.example.samajconnectbackend.repository.RelationshipRequestRepository;
 import com.example.samajconnectbackend.repository.UserRelationshipRepository;
+import com.example.samajconnectbackend.repository.UserRelationshipSpecifications;
 import com.example.samajconnectbackend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -21,10 +29,22 @@ import java.util.stream.Collectors;
 @Transactional
 public class FamilyTreeService {
 
+    // Upper bound on the relationships between two users that a path search will follow
+    private static final int MAX_PATH_DEPTH = 12;
+    // Upper bound on the generations an ancestor or descendant listing walks
+    private static final int MAX_LINEAGE_DEPTH = 20;
+
+    private static final List<String> ANCESTOR_TYPES = List.of(RelationshipType.FATHER.name(), RelationshipType.MOTHER.name());
+    private static final List<String> DESCENDANT_TYPES = List.of(RelationshipType.SON.name(), RelationshipType.DAUGHTER.name());
+
     private final UserRelationshipRepository relationshipRepository;
     private final UserRepository userRepository;
     private final RelationshipRequestRepository requestRepository;
+    private final InferredRelationshipRepository inferredRelationshipRepository;
     private final RelationshipValidationService validationService;
+    private final ProfileImageService profileImageService;
+    private final KinshipGraphService kinshipGraphService;
+    private final ApplicationEventPublisher eventPublisher;
 
     // ==================== CONTROLLER METHOD ORDER ====================
 
@@ -35,11 +55,11 @@ public class FamilyTreeService {
     public FamilyTreeResponse getFamilyTree(Long userId) {
         log.info("Fetching family tree for user: {}", userId);
 
-        // Get all relationships for the user
-        List<UserRelationship> relationships = relationshipRepository.findByUserIdAndIsActiveTrue(userId);
+        // Relationships come from the kinship graph; related users and their samaj are loaded in one query
+        List<UserRelationship> relationships = withRelatedUsers(kinshipGraphService.activeRelationshipsOf(userId));
 
         // Get user details
-        User rootUser = userRepository.findById(userId)
+        User rootUser = userRepository.findWithSamajById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         // Build family tree response
@@ -131,7 +151,10 @@ public class FamilyTreeService {
             }
 
             relationship.setUpdatedAt(LocalDateTime.now());
-            relationshipRepository.save(relationship);
+            UserRelationship savedRelationship = relationshipRepository.save(relationship);
+            if (Boolean.TRUE.equals(savedRelationship.getIsActive())) {
+                eventPublisher.publishEvent(KinshipChangedEvent.saved(savedRelationship));
+            }
 
             return ApiResponse.success("Relationship updated successfully");
 
@@ -149,6 +172,7 @@ public class FamilyTreeService {
         try {
             relationshipRepository.softDeleteRelationship(userId, relatedUserId);
             relationshipRepository.softDeleteRelationship(relatedUserId, userId);
+            eventPublisher.publishEvent(KinshipChangedEvent.removed(userId, relatedUserId));
             return ApiResponse.success("Relationship removed successfully");
         } catch (Exception e) {
             log.error("Error removing relationship", e);
@@ -258,29 +282,21 @@ public class FamilyTreeService {
      */
     public FamilyMemberSearchResponse searchFamilyMembers(Long userId, FamilyMemberSearchDto searchDto) {
         try {
-            List<UserRelationship> allRelationships = relationshipRepository.findByUserIdAndIsActiveTrue(userId);
-
-            // Filter relationships based on search criteria
-            List<UserRelationship> filteredRelationships = allRelationships.stream()
-                    .filter(rel -> matchesSearchCriteria(rel, searchDto))
-                    .collect(Collectors.toList());
-
-            // Apply pagination
-            int start = searchDto.getPage() * searchDto.getSize();
-            int end = Math.min(start + searchDto.getSize(), filteredRelationships.size());
-
-            List<UserRelationship> pagedRelationships = filteredRelationships.subList(start, end);
+            // Filtering, ordering and paging all happen in the database
+            Page<UserRelationship> relationshipPage = relationshipRepository.findAll(
+                    UserRelationshipSpecifications.familyMemberSearch(userId, searchDto),
+                    PageRequest.of(searchDto.getPage(), searchDto.getSize()));
 
-            List<UserNodeDto> members = pagedRelationships.stream()
+            List<UserNodeDto> members = relationshipPage.getContent().stream()
                     .map(this::buildUserNodeDto)
                     .collect(Collectors.toList());
 
             FamilyMemberSearchResponse response = new FamilyMemberSearchResponse();
             response.setMembers(members);
-            response.setTotalResults((long) filteredRelationships.size());
+            response.setTotalResults(relationshipPage.getTotalElements());
             response.setCurrentPage(searchDto.getPage());
-            response.setTotalPages((int) Math.ceil((double) filteredRelationships.size() / searchDto.getSize()));
-            response.setHasNext(end < filteredRelationships.size());
+            response.setTotalPages(relationshipPage.getTotalPages());
+            response.setHasNext(relationshipPage.hasNext());
             response.setHasPrevious(searchDto.getPage() > 0);
 
             return response;
@@ -296,8 +312,8 @@ public class FamilyTreeService {
      * Corresponds to: GET /generation/{userId}/{generationLevel}
      */
     public List<UserNodeDto> getFamilyMembersByGeneration(Long userId, Integer generationLevel) {
-        List<UserRelationship> relationships = relationshipRepository
-                .findByUserIdAndGenerationLevelAndIsActiveTrue(userId, generationLevel);
+        List<UserRelationship> relationships = withRelatedUsers(
+                kinshipGraphService.activeRelationshipsAtGeneration(userId, generationLevel));
 
         return relationships.stream()
                 .map(this::buildUserNodeDto)
@@ -309,8 +325,8 @@ public class FamilyTreeService {
      * Corresponds to: GET /side/{userId}/{relationshipSide}
      */
     public List<UserNodeDto> getFamilyMembersBySide(Long userId, RelationshipSide side) {
-        List<UserRelationship> relationships = relationshipRepository
-                .findByUserIdAndRelationshipSideAndIsActiveTrue(userId, side);
+        List<UserRelationship> relationships = withRelatedUsers(
+                kinshipGraphService.activeRelationshipsOnSide(userId, side));
 
         return relationships.stream()
                 .map(this::buildUserNodeDto)
@@ -322,15 +338,109 @@ public class FamilyTreeService {
      * Corresponds to: GET /mutual/{userId1}/{userId2}
      */
     public List<UserNodeDto> getMutualRelatives(Long userId1, Long userId2) {
-        List<Long> mutualRelativeIds = relationshipRepository.findMutualRelatives(userId1, userId2);
-        return mutualRelativeIds.stream()
-                .map(id -> userRepository.findById(id))
-                .filter(Optional::isPresent)
-                .map(Optional::get)
+        long[] mutualRelativeIds = kinshipGraphService.mutualRelativeIds(userId1, userId2);
+        Map<Long, User> usersById = loadUsersById(Arrays.stream(mutualRelativeIds).boxed().collect(Collectors.toSet()));
+        return Arrays.stream(mutualRelativeIds)
+                .mapToObj(usersById::get)
+                .filter(Objects::nonNull)
                 .map(user -> buildUserNodeDto(user, null, false))
                 .collect(Collectors.toList());
     }
 
+    /**
+     * 12. Find how two users are related through a chain of relationships
+     * Corresponds to: GET /path/{fromUserId}/{toUserId}
+     */
+    public KinshipPathResponse getKinshipPath(Long fromUserId, Long toUserId, int maxDepth) {
+        int depth = Math.max(1, Math.min(maxDepth, MAX_PATH_DEPTH));
+        List<KinshipPathFinder.Step> steps = kinshipGraphService.shortestPath(fromUserId, toUserId, depth)
+                .orElse(null);
+
+        Set<Long> userIds = new HashSet<>(List.of(fromUserId, toUserId));
+        if (steps != null) {
+            steps.forEach(step -> userIds.add(step.getUserId()));
+        }
+        Map<Long, User> usersById = loadUsersById(userIds);
+        User fromUser = Optional.ofNullable(usersById.get(fromUserId))
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        User toUser = Optional.ofNullable(usersById.get(toUserId))
+                .orElseThrow(() -> new RuntimeException("Related user not found"));
+
+        KinshipPathResponse response = new KinshipPathResponse();
+        response.setFromUser(buildUserNodeDto(fromUser, null, true));
+        response.setToUser(buildUserNodeDto(toUser, null, false));
+        response.setConnected(steps != null);
+        if (steps == null) {
+            return response;
+        }
+
+        List<UserNodeDto> path = new ArrayList<>();
+        for (KinshipPathFinder.Step step : steps) {
+            UserNodeDto node = buildUserNodeDto(usersById.get(step.getUserId()), null, false);
+            node.setRelationshipType(step.getRelationshipType());
+            node.setRelationshipDisplayName(step.getRelationshipType().getDisplayName());
+            path.add(node);
+        }
+        response.setDegree(steps.size());
+        response.setPath(path);
+        response.setRelationshipChain(steps.stream()
+                .map(KinshipPathFinder.Step::getRelationshipType)
+                .collect(Collectors.toList()));
+        // e.g. "Father's Brother's Son"
+        response.setRelationshipDescription(steps.stream()
+                .map(step -> step.getRelationshipType().getDisplayName())
+                .collect(Collectors.joining("'s ")));
+        return response;
+    }
+
+    /**
+     * 13. Pass a user's ancestors, nearest generation first, to action; returns how many there were
+     * Corresponds to: GET /ancestors/{userId}
+     */
+    @Transactional(readOnly = true)
+    public int forEachAncestor(Long userId, int maxDepth, Consumer<LineageMemberDto> action) {
+        return forEachInLineage(userId, ANCESTOR_TYPES, -1, maxDepth, action);
+    }
+
+    /**
+     * 14. Pass a user's descendants, nearest generation first, to action; returns how many there were
+     * Corresponds to: GET /descendants/{userId}
+     */
+    @Transactional(readOnly = true)
+    public int forEachDescendant(Long userId, int maxDepth, Consumer<LineageMemberDto> action) {
+        return forEachInLineage(userId, DESCENDANT_TYPES, 1, maxDepth, action);
+    }
+
+    /**
+     * 15. Get the relatives implied by a user's approved relationships (grandparents, uncles, cousins, in-laws)
+     * Corresponds to: GET /inferred/{userId}
+     */
+    @Transactional(readOnly = true)
+    public List<UserNodeDto> getInferredRelatives(Long userId) {
+        List<InferredRelationship> inferred = inferredRelationshipRepository
+                .findByUserIdOrderByGenerationLevelAscRelatedUserIdAsc(userId);
+        Map<Long, User> usersById = loadUsersById(inferred.stream()
+                .map(InferredRelationship::getRelatedUserId)
+                .collect(Collectors.toSet()));
+
+        List<UserNodeDto> relatives = new ArrayList<>(inferred.size());
+        for (InferredRelationship relationship : inferred) {
+            User relative = usersById.get(relationship.getRelatedUserId());
+            if (relative == null) {
+                continue;
+            }
+            UserNodeDto dto = buildUserNodeDto(relative, null, false);
+            dto.setRelationshipType(relationship.getRelationshipType());
+            dto.setRelationshipDisplayName(relationship.getRelationshipType().getDisplayName());
+            dto.setRelationshipSide(relationship.getRelationshipSide());
+            dto.setRelationshipSideDisplayName(relationship.getRelationshipSide().getDisplayName());
+            dto.setGenerationLevel(relationship.getGenerationLevel());
+            dto.setGenerationName(getGenerationName(relationship.getGenerationLevel()));
+            relatives.add(dto);
+        }
+        return relatives;
+    }
+
     // ==================== PRIVATE HELPER METHODS ====================
 
     /**
@@ -436,7 +546,7 @@ public class FamilyTreeService {
             log.info("CALCULATING_REVERSE_TYPE: OriginalType={}, RequesterGender={}, TargetGender={}, Context={}",
                     request.getRelationshipType(), requesterUser.getGender(), targetUser.getGender(), context);
 
-            RelationshipType reverseType = getReverseRelationshipTypeEnhanced(
+            RelationshipType reverseType = ReverseRelationshipTable.reverseOf(
                     request.getRelationshipType(), requesterUser, targetUser, context);
 
             log.info("CALCULATED_REVERSE_TYPE: {}", reverseType);
@@ -456,6 +566,8 @@ public class FamilyTreeService {
             log.info("BIDIRECTIONAL_RELATIONSHIPS_CREATED_SUCCESSFULLY: Forward ID={}, Reverse ID={}",
                     requesterRelationship.getId(), targetRelationship.getId());
 
+            eventPublisher.publishEvent(KinshipChangedEvent.saved(requesterRelationship, targetRelationship));
+
         } catch (DataIntegrityViolationException e) {
             log.warn("Relationship creation failed due to constraint violation - relationship may have been created by another process", e);
             throw new RuntimeException("Relationship already exists between these users");
@@ -531,327 +643,6 @@ public class FamilyTreeService {
         return relationshipExists;
     }
 
-    /**
-     * ENHANCED: Get reverse relationship type with context - SOLVES THE MAIN ISSUE
-     */
-    private RelationshipType getReverseRelationshipTypeEnhanced(RelationshipType originalType,
-                                                                User requesterUser, User targetUser,
-                                                                RelationshipContext context) {
-        log.info("REVERSE_TYPE_CALCULATION_START: OriginalType={}, RequesterGender={}, TargetGender={}, Context={}",
-                originalType, requesterUser.getGender(), targetUser.getGender(), context);
-
-        boolean isRequesterMale = "MALE".equalsIgnoreCase(requesterUser.getGender()) || "M".equalsIgnoreCase(requesterUser.getGender());
-        boolean isRequesterFemale = "FEMALE".equalsIgnoreCase(requesterUser.getGender()) || "F".equalsIgnoreCase(requesterUser.getGender());
-
-        log.info("REVERSE_TYPE_CALCULATION: isRequesterMale={}, isRequesterFemale={}", isRequesterMale, isRequesterFemale);
-
-        RelationshipType reverseType = switch (originalType) {
-            // Parent-Child relationships: reverse depends on requester's gender
-            case FATHER -> {
-                RelationshipType result = isRequesterMale ? RelationshipType.SON : RelationshipType.DAUGHTER;
-                log.info("REVERSE_TYPE_CALCULATION: FATHER -> {} (based on requester gender)", result);
-                yield result;
-            }
-            case MOTHER -> {
-                RelationshipType result = isRequesterMale ? RelationshipType.SON : RelationshipType.DAUGHTER;
-                log.info("REVERSE_TYPE_CALCULATION: MOTHER -> {} (based on requester gender)", result);
-                yield result;
-            }
-            case SON -> {
-                log.info("REVERSE_TYPE_CALCULATION: SON -> FATHER || MOTHER");
-                yield isRequesterMale ? RelationshipType.FATHER : RelationshipType.MOTHER;
-            }
-            case DAUGHTER -> {
-                log.info("REVERSE_TYPE_CALCULATION: DAUGHTER -> MOTHER || FATHER");
-                yield isRequesterMale ? RelationshipType.FATHER : RelationshipType.MOTHER;
-            }
-
-            // Spouse relationships: fixed reverse
-            case HUSBAND -> {
-                log.info("REVERSE_TYPE_CALCULATION: HUSBAND -> WIFE");
-                yield RelationshipType.WIFE;
-            }
-            case WIFE -> {
-                log.info("REVERSE_TYPE_CALCULATION: WIFE -> HUSBAND");
-                yield RelationshipType.HUSBAND;
-            }
-
-            // Sibling relationships: reverse depends on requester's gender
-            case BROTHER -> {
-                RelationshipType result = isRequesterMale ? RelationshipType.BROTHER : RelationshipType.SISTER;
-                log.info("REVERSE_TYPE_CALCULATION: BROTHER -> {} (based on requester gender)", result);
-                yield result;
-            }
-            case SISTER -> {
-                RelationshipType result = isRequesterMale ? RelationshipType.BROTHER : RelationshipType.SISTER;
-                log.info("REVERSE_TYPE_CALCULATION: SISTER -> {} (based on requester gender)", result);
-                yield result;
-            }
-
-            // Grandparent-Grandchild relationships: reverse depends on requester's gender
-            case PATERNAL_GRANDFATHER -> {
-                RelationshipType result = isRequesterMale ? RelationshipType.GRANDSON : RelationshipType.GRANDDAUGHTER;
-                log.info("REVERSE_TYPE_CALCULATION: PATERNAL_GRANDFATHER -> {} (based on requester gender)", result);
-                yield result;
-            }
-            case PATERNAL_GRANDMOTHER -> {
-                RelationshipType result = isRequesterMale ? RelationshipType.GRANDSON : RelationshipType.GRANDDAUGHTER;
-                log.info("REVERSE_TYPE_CALCULATION: PATERNAL_GRANDMOTHER -> {} (based on requester gender)", result);
-                yield result;
-            }
-            case MATERNAL_GRANDFATHER -> {
-                RelationshipType result = isRequesterMale ? RelationshipType.GRANDSON : RelationshipType.GRANDDAUGHTER;
-                log.info("REVERSE_TYPE_CALCULATION: MATERNAL_GRANDFATHER -> {} (based on requester gender)", result);
-                yield result;
-            }
-            case MATERNAL_GRANDMOTHER -> {
-                RelationshipType result = isRequesterMale ? RelationshipType.GRANDSON : RelationshipType.GRANDDAUGHTER;
-                log.info("REVERSE_TYPE_CALCULATION: MATERNAL_GRANDMOTHER -> {} (based on requester gender)", result);
-                yield result;
-            }
-
-            // ENHANCED: GRANDSON/GRANDDAUGHTER with context-based lineage determination
-            case GRANDSON -> {
-                RelationshipType result = determineGrandparentLineage(context, isRequesterMale, true);
-                log.info("REVERSE_TYPE_CALCULATION: GRANDSON -> {} (based on context)", result);
-                yield result;
-            }
-            case GRANDDAUGHTER -> {
-                RelationshipType result = determineGrandparentLineage(context, isRequesterMale, false);
-                log.info("REVERSE_TYPE_CALCULATION: GRANDDAUGHTER -> {} (based on context)", result);
-                yield result;
-            }
-
-            // Uncle/Aunt - Nephew/Niece relationships: reverse depends on requester's gender
-            case PATERNAL_UNCLE -> {
-                RelationshipType result = isRequesterMale ? RelationshipType.NEPHEW : RelationshipType.NIECE;
-                log.info("REVERSE_TYPE_CALCULATION: PATERNAL_UNCLE -> {} (based on requester gender)", result);
-                yield result;
-            }
-            case PATERNAL_AUNT -> {
-                RelationshipType result = isRequesterMale ? RelationshipType.NEPHEW : RelationshipType.NIECE;
-                log.info("REVERSE_TYPE_CALCULATION: PATERNAL_AUNT -> {} (based on requester gender)", result);
-                yield result;
-            }
-            case MATERNAL_UNCLE -> {
-                RelationshipType result = isRequesterMale ? RelationshipType.NEPHEW : RelationshipType.NIECE;
-                log.info("REVERSE_TYPE_CALCULATION: MATERNAL_UNCLE -> {} (based on requester gender)", result);
-                yield result;
-            }
-            case MATERNAL_AUNT -> {
-                RelationshipType result = isRequesterMale ? RelationshipType.NEPHEW : RelationshipType.NIECE;
-                log.info("REVERSE_TYPE_CALCULATION: MATERNAL_AUNT -> {} (based on requester gender)", result);
-                yield result;
-            }
-
-            // ENHANCED: NEPHEW/NIECE with context-based lineage determination
-            case NEPHEW -> {
-                RelationshipType result = determineUncleAuntLineage(context, true);
-                log.info("REVERSE_TYPE_CALCULATION: NEPHEW -> {} (based on context)", result);
-                yield result;
-            }
-            case NIECE -> {
-                RelationshipType result = determineUncleAuntLineage(context, false);
-                log.info("REVERSE_TYPE_CALCULATION: NIECE -> {} (based on context)", result);
-                yield result;
-            }
-
-            // Cousin relationships: reverse depends on requester's gender
-            case PATERNAL_COUSIN_BROTHER -> {
-                RelationshipType result = isRequesterMale ? RelationshipType.PATERNAL_COUSIN_BROTHER : RelationshipType.PATERNAL_COUSIN_SISTER;
-                log.info("REVERSE_TYPE_CALCULATION: PATERNAL_COUSIN_BROTHER -> {} (based on requester gender)", result);
-                yield result;
-            }
-            case PATERNAL_COUSIN_SISTER -> {
-                RelationshipType result = isRequesterMale ? RelationshipType.PATERNAL_COUSIN_BROTHER : RelationshipType.PATERNAL_COUSIN_SISTER;
-                log.info("REVERSE_TYPE_CALCULATION: PATERNAL_COUSIN_SISTER -> {} (based on requester gender)", result);
-                yield result;
-            }
-            case MATERNAL_COUSIN_BROTHER -> {
-                RelationshipType result = isRequesterMale ? RelationshipType.MATERNAL_COUSIN_BROTHER : RelationshipType.MATERNAL_COUSIN_SISTER;
-                log.info("REVERSE_TYPE_CALCULATION: MATERNAL_COUSIN_BROTHER -> {} (based on requester gender)", result);
-                yield result;
-            }
-            case MATERNAL_COUSIN_SISTER -> {
-                RelationshipType result = isRequesterMale ? RelationshipType.MATERNAL_COUSIN_BROTHER : RelationshipType.MATERNAL_COUSIN_SISTER;
-                log.info("REVERSE_TYPE_CALCULATION: MATERNAL_COUSIN_SISTER -> {} (based on requester gender)", result);
-                yield result;
-            }
-
-            // In-Law relationships: fixed reverse
-            case FATHER_IN_LAW -> {
-                log.info("REVERSE_TYPE_CALCULATION: FATHER_IN_LAW -> SON_IN_LAW");
-                yield RelationshipType.SON_IN_LAW;
-            }
-            case MOTHER_IN_LAW -> {
-                log.info("REVERSE_TYPE_CALCULATION: MOTHER_IN_LAW -> DAUGHTER_IN_LAW");
-                yield RelationshipType.DAUGHTER_IN_LAW;
-            }
-            case BROTHER_IN_LAW -> {
-                log.info("REVERSE_TYPE_CALCULATION: BROTHER_IN_LAW -> SISTER_IN_LAW");
-                yield RelationshipType.SISTER_IN_LAW;
-            }
-            case SISTER_IN_LAW -> {
-                log.info("REVERSE_TYPE_CALCULATION: SISTER_IN_LAW -> BROTHER_IN_LAW");
-                yield RelationshipType.BROTHER_IN_LAW;
-            }
-            case SON_IN_LAW -> {
-                log.info("REVERSE_TYPE_CALCULATION: SON_IN_LAW -> FATHER_IN_LAW");
-                yield RelationshipType.FATHER_IN_LAW;
-            }
-            case DAUGHTER_IN_LAW -> {
-                log.info("REVERSE_TYPE_CALCULATION: DAUGHTER_IN_LAW -> MOTHER_IN_LAW");
-                yield RelationshipType.MOTHER_IN_LAW;
-            }
-
-            // Great-grandparent relationships: reverse depends on requester's gender
-            case GREAT_GRANDFATHER -> {
-                RelationshipType result = isRequesterMale ? RelationshipType.GREAT_GRANDSON : RelationshipType.GREAT_GRANDDAUGHTER;
-                log.info("REVERSE_TYPE_CALCULATION: GREAT_GRANDFATHER -> {} (based on requester gender)", result);
-                yield result;
-            }
-            case GREAT_GRANDMOTHER -> {
-                RelationshipType result = isRequesterMale ? RelationshipType.GREAT_GRANDSON : RelationshipType.GREAT_GRANDDAUGHTER;
-                log.info("REVERSE_TYPE_CALCULATION: GREAT_GRANDMOTHER -> {} (based on requester gender)", result);
-                yield result;
-            }
-            case GREAT_GRANDSON -> {
-                log.info("REVERSE_TYPE_CALCULATION: GREAT_GRANDSON -> GREAT_GRANDFATHER");
-                yield RelationshipType.GREAT_GRANDFATHER;
-            }
-            case GREAT_GRANDDAUGHTER -> {
-                log.info("REVERSE_TYPE_CALCULATION: GREAT_GRANDDAUGHTER -> GREAT_GRANDMOTHER");
-                yield RelationshipType.GREAT_GRANDMOTHER;
-            }
-
-            // Step family relationships: reverse depends on requester's gender
-            case STEP_FATHER -> {
-                RelationshipType result = isRequesterMale ? RelationshipType.STEP_SON : RelationshipType.STEP_DAUGHTER;
-                log.info("REVERSE_TYPE_CALCULATION: STEP_FATHER -> {} (based on requester gender)", result);
-                yield result;
-            }
-            case STEP_MOTHER -> {
-                RelationshipType result = isRequesterMale ? RelationshipType.STEP_SON : RelationshipType.STEP_DAUGHTER;
-                log.info("REVERSE_TYPE_CALCULATION: STEP_MOTHER -> {} (based on requester gender)", result);
-                yield result;
-            }
-            case STEP_BROTHER -> {
-                RelationshipType result = isRequesterMale ? RelationshipType.STEP_BROTHER : RelationshipType.STEP_SISTER;
-                log.info("REVERSE_TYPE_CALCULATION: STEP_BROTHER -> {} (based on requester gender)", result);
-                yield result;
-            }
-            case STEP_SISTER -> {
-                RelationshipType result = isRequesterMale ? RelationshipType.STEP_BROTHER : RelationshipType.STEP_SISTER;
-                log.info("REVERSE_TYPE_CALCULATION: STEP_SISTER -> {} (based on requester gender)", result);
-                yield result;
-            }
-            case STEP_SON -> {
-                log.info("REVERSE_TYPE_CALCULATION: STEP_SON -> STEP_FATHER");
-                yield RelationshipType.STEP_FATHER;
-            }
-            case STEP_DAUGHTER -> {
-                log.info("REVERSE_TYPE_CALCULATION: STEP_DAUGHTER -> STEP_MOTHER");
-                yield RelationshipType.STEP_MOTHER;
-            }
-
-            default -> {
-                log.info("REVERSE_TYPE_CALCULATION: DEFAULT -> {}", originalType);
-                yield originalType; // For any unhandled relationships, return same
-            }
-        };
-
-        log.info("REVERSE_TYPE_CALCULATION_FINAL: OriginalType={}, RequesterGender={}, ReverseType={}, Context={}",
-                originalType, requesterUser.getGender(), reverseType, context);
-
-        return reverseType;
-    }
-
-    /**
-     * NEW: Determine grandparent lineage based on context
-     */
-    private RelationshipType determineGrandparentLineage(RelationshipContext context, boolean isRequesterMale, boolean isGrandson) {
-        log.info("GRANDPARENT_LINEAGE_DETERMINATION: Context={}, isRequesterMale={}, isGrandson={}", context, isRequesterMale, isGrandson);
-
-        if (context != null && context.getLineage() != null) {
-            // Direct lineage specification
-            if ("PATERNAL".equalsIgnoreCase(context.getLineage())) {
-                RelationshipType result = isRequesterMale ? RelationshipType.PATERNAL_GRANDFATHER : RelationshipType.PATERNAL_GRANDMOTHER;
-                log.info("GRANDPARENT_LINEAGE_DETERMINATION: PATERNAL context -> {}", result);
-                return result;
-            } else if ("MATERNAL".equalsIgnoreCase(context.getLineage())) {
-                RelationshipType result = isRequesterMale ? RelationshipType.MATERNAL_GRANDFATHER : RelationshipType.MATERNAL_GRANDMOTHER;
-                log.info("GRANDPARENT_LINEAGE_DETERMINATION: MATERNAL context -> {}", result);
-                return result;
-            }
-        }
-
-        if (context != null && context.getIntermediateRelative() != null) {
-            // Determine lineage based on intermediate relative (the parent)
-            User parentUser = context.getIntermediateRelative();
-            boolean isParentMale = "MALE".equalsIgnoreCase(parentUser.getGender()) || "M".equalsIgnoreCase(parentUser.getGender());
-
-            log.info("GRANDPARENT_LINEAGE_DETERMINATION: IntermediateRelative={}, isParentMale={}", parentUser.getName(), isParentMale);
-
-            if (isParentMale) {
-                // Father's side = Paternal
-                RelationshipType result = isRequesterMale ? RelationshipType.PATERNAL_GRANDFATHER : RelationshipType.PATERNAL_GRANDMOTHER;
-                log.info("GRANDPARENT_LINEAGE_DETERMINATION: Parent is male -> {}", result);
-                return result;
-            } else {
-                // Mother's side = Maternal
-                RelationshipType result = isRequesterMale ? RelationshipType.MATERNAL_GRANDFATHER : RelationshipType.MATERNAL_GRANDMOTHER;
-                log.info("GRANDPARENT_LINEAGE_DETERMINATION: Parent is female -> {}", result);
-                return result;
-            }
-        }
-
-        // Default fallback
-        RelationshipType result = isRequesterMale ? RelationshipType.PATERNAL_GRANDFATHER : RelationshipType.PATERNAL_GRANDMOTHER;
-        log.info("GRANDPARENT_LINEAGE_DETERMINATION: Default fallback -> {}", result);
-        return result;
-    }
-
-    /**
-     * NEW: Determine uncle/aunt lineage based on context
-     */
-    private RelationshipType determineUncleAuntLineage(RelationshipContext context, boolean isNephew) {
-        log.info("UNCLE_AUNT_LINEAGE_DETERMINATION: Context={}, isNephew={}", context, isNephew);
-
-        if (context != null && context.getLineage() != null) {
-            if ("PATERNAL".equalsIgnoreCase(context.getLineage())) {
-                RelationshipType result = isNephew ? RelationshipType.PATERNAL_UNCLE : RelationshipType.PATERNAL_AUNT;
-                log.info("UNCLE_AUNT_LINEAGE_DETERMINATION: PATERNAL context -> {}", result);
-                return result;
-            } else if ("MATERNAL".equalsIgnoreCase(context.getLineage())) {
-                RelationshipType result = isNephew ? RelationshipType.MATERNAL_UNCLE : RelationshipType.MATERNAL_AUNT;
-                log.info("UNCLE_AUNT_LINEAGE_DETERMINATION: MATERNAL context -> {}", result);
-                return result;
-            }
-        }
-
-        if (context != null && context.getIntermediateRelative() != null) {
-            User parentUser = context.getIntermediateRelative();
-            boolean isParentMale = "MALE".equalsIgnoreCase(parentUser.getGender()) || "M".equalsIgnoreCase(parentUser.getGender());
-
-            log.info("UNCLE_AUNT_LINEAGE_DETERMINATION: IntermediateRelative={}, isParentMale={}", parentUser.getName(), isParentMale);
-
-            if (isParentMale) {
-                RelationshipType result = isNephew ? RelationshipType.PATERNAL_UNCLE : RelationshipType.PATERNAL_AUNT;
-                log.info("UNCLE_AUNT_LINEAGE_DETERMINATION: Parent is male -> {}", result);
-                return result;
-            } else {
-                RelationshipType result = isNephew ? RelationshipType.MATERNAL_UNCLE : RelationshipType.MATERNAL_AUNT;
-                log.info("UNCLE_AUNT_LINEAGE_DETERMINATION: Parent is female -> {}", result);
-                return result;
-            }
-        }
-
-        // Default fallback
-        RelationshipType result = isNephew ? RelationshipType.PATERNAL_UNCLE : RelationshipType.PATERNAL_AUNT;
-        log.info("UNCLE_AUNT_LINEAGE_DETERMINATION: Default fallback -> {}", result);
-        return result;
-    }
-
     /**
      * NEW: Build relationship context from request
      */
@@ -1019,48 +810,6 @@ public class FamilyTreeService {
     }
 
     // Helper methods remain the same...
-    private boolean matchesSearchCriteria(UserRelationship relationship, FamilyMemberSearchDto searchDto) {
-        // Name search
-        if (searchDto.getQuery() != null && !searchDto.getQuery().isEmpty()) {
-            String query = searchDto.getQuery().toLowerCase();
-            if (!relationship.getRelatedUser().getName().toLowerCase().contains(query) &&
-                    !relationship.getRelatedUser().getEmail().toLowerCase().contains(query)) {
-                return false;
-            }
-        }
-
-        // Relationship type filter
-        if (searchDto.getRelationshipTypes() != null && !searchDto.getRelationshipTypes().isEmpty()) {
-            if (!searchDto.getRelationshipTypes().contains(relationship.getRelationshipType().name())) {
-                return false;
-            }
-        }
-
-        // Relationship side filter
-        if (searchDto.getRelationshipSides() != null && !searchDto.getRelationshipSides().isEmpty()) {
-            if (!searchDto.getRelationshipSides().contains(relationship.getRelationshipSide().name())) {
-                return false;
-            }
-        }
-
-        // Generation level filter
-        if (searchDto.getGenerationLevels() != null && !searchDto.getGenerationLevels().isEmpty()) {
-            if (!searchDto.getGenerationLevels().contains(relationship.getGenerationLevel())) {
-                return false;
-            }
-        }
-
-        // Samaj filter
-        if (searchDto.getSamajId() != null) {
-            if (relationship.getRelatedUser().getSamaj() == null ||
-                    !relationship.getRelatedUser().getSamaj().getId().equals(searchDto.getSamajId())) {
-                return false;
-            }
-        }
-
-        return true;
-    }
-
     private Map<String, FamilySideDto> buildFamilySides(List<UserRelationship> relationships) {
         Map<String, FamilySideDto> familySides = new HashMap<>();
 
@@ -1165,7 +914,7 @@ public class FamilyTreeService {
                 ));
         stats.setRelationshipsByGeneration(relationshipsByGeneration);
 
-        stats.setPendingRequests((long) requestRepository.findByTargetUserIdAndStatus(userId, RequestStatus.PENDING).size());
+        stats.setPendingRequests(requestRepository.countPendingRequestsForUser(userId));
 
         long directFamilyCount = relationships.stream()
                 .filter(rel -> rel.getRelationshipSide() == RelationshipSide.DIRECT)
@@ -1176,6 +925,71 @@ public class FamilyTreeService {
         return stats;
     }
 
+    /**
+     * Walk parent or child edges in one recursive query and hand over each member as the row is read
+     */
+    private int forEachInLineage(Long userId, List<String> types, int direction, int maxDepth,
+                                 Consumer<LineageMemberDto> action) {
+        int depth = Math.max(1, Math.min(maxDepth, MAX_LINEAGE_DEPTH));
+        int count = 0;
+        try (Stream<Object[]> rows = relationshipRepository.streamLineage(userId, types, depth)) {
+            Iterator<Object[]> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                Object[] row = iterator.next();
+                Long memberId = ((Number) row[0]).longValue();
+                RelationshipType relationshipType = RelationshipType.valueOf((String) row[2]);
+                int generationLevel = direction * ((Number) row[3]).intValue();
+                Long profileImageVersion = row[6] != null ? ((Number) row[6]).longValue() : null;
+
+                LineageMemberDto member = new LineageMemberDto();
+                member.setUserId(memberId);
+                member.setName((String) row[4]);
+                member.setEmail((String) row[5]);
+                member.setProfileImageUrl(profileImageService.avatarUrl(memberId, profileImageVersion, ImageVariant.SMALL));
+                member.setHasProfileImage(member.getProfileImageUrl() != null);
+                member.setGenerationLevel(generationLevel);
+                member.setGenerationName(getGenerationName(generationLevel));
+                member.setViaUserId(((Number) row[1]).longValue());
+                member.setRelationshipType(relationshipType);
+                member.setRelationshipDisplayName(relationshipType.getDisplayName());
+                action.accept(member);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Attach related users (with their samaj) to relationships read from the kinship graph, in one query;
+     * relationships whose related user no longer exists are dropped
+     */
+    private List<UserRelationship> withRelatedUsers(List<UserRelationship> relationships) {
+        if (relationships.isEmpty()) {
+            return relationships;
+        }
+        Map<Long, User> usersById = loadUsersById(relationships.stream()
+                .map(UserRelationship::getRelatedUserId)
+                .collect(Collectors.toSet()));
+
+        List<UserRelationship> attached = new ArrayList<>(relationships.size());
+        for (UserRelationship relationship : relationships) {
+            User relatedUser = usersById.get(relationship.getRelatedUserId());
+            if (relatedUser != null) {
+                relationship.setRelatedUser(relatedUser);
+                attached.add(relationship);
+            }
+        }
+        return attached;
+    }
+
+    private Map<Long, User> loadUsersById(Set<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return userRepository.findAllWithSamajByIdIn(userIds).stream()
+                .collect(Collectors.toMap(User::getId, user -> user));
+    }
+
     private UserNodeDto buildUserNodeDto(UserRelationship relationship) {
         return buildUserNodeDto(relationship.getRelatedUser(), relationship, false);
     }
@@ -1186,11 +1000,8 @@ public class FamilyTreeService {
         dto.setName(user.getName());
         dto.setEmail(user.getEmail());
         dto.setSamajName(user.getSamaj() != null ? user.getSamaj().getName() : null);
-        dto.setHasProfileImage(user.getProfileImg() != null);
-
-        if (user.getProfileImg() != null) {
-            dto.setProfileImageBase64(Base64.getEncoder().encodeToString(user.getProfileImg()));
-        }
+        dto.setProfileImageUrl(profileImageService.avatarUrl(user, ImageVariant.SMALL));
+        dto.setHasProfileImage(dto.getProfileImageUrl() != null);
 
         if (relationship != null) {
             dto.setRelationshipType(relationship.getRelationshipType());
@@ -1240,14 +1051,12 @@ public class FamilyTreeService {
         if (showReverseRelationship) {
             // For pending requests, show what relationship the target user would have with the requester
             try {
-                User requesterUser = userRepository.findById(request.getRequesterUserId())
-                        .orElse(null);
-                User targetUser = userRepository.findById(request.getTargetUserId())
-                        .orElse(null);
+                User requesterUser = request.getRequesterUser();
+                User targetUser = request.getTargetUser();
 
                 if (requesterUser != null && targetUser != null) {
                     RelationshipContext context = buildRelationshipContextFromRequest(request, requesterUser, targetUser);
-                    RelationshipType reverseType = getReverseRelationshipTypeEnhanced(
+                    RelationshipType reverseType = ReverseRelationshipTable.reverseOf(
                             request.getRelationshipType(), requesterUser, targetUser, context);
 
                     dto.setRelationshipDisplayName(reverseType.getDisplayName());
@@ -0,0 +1,196 @@
+package com.example.samajconnectbackend.service;
+
+import com.example.samajconnectbackend.entity.ImageVariant;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Validates uploaded images and renders the fixed set of sizes we serve, using only ImageIO/Java2D.
+ */
+@Service
+public class ImageProcessingService {
+
+    private static final int MAX_UPLOAD_BYTES = 10 * 1024 * 1024;
+    private static final long MAX_SOURCE_PIXELS = 40_000_000L;
+    private static final Set<String> SUPPORTED_FORMATS = Set.of("jpeg", "png", "gif", "bmp");
+    private static final float JPEG_QUALITY = 0.85f;
+
+    @Getter
+    @AllArgsConstructor
+    public static class ProcessedImage {
+        private final byte[] data;
+        private final String contentType;
+        private final int width;
+        private final int height;
+    }
+
+    /**
+     * Decode and validate an uploaded image and produce one rendition per {@link ImageVariant}.
+     * Throws IllegalArgumentException if the upload is not an acceptable image.
+     */
+    public Map<ImageVariant, ProcessedImage> process(byte[] source) {
+        if (source == null || source.length == 0) {
+            throw new IllegalArgumentException("Image data is empty");
+        }
+        if (source.length > MAX_UPLOAD_BYTES) {
+            throw new IllegalArgumentException("Image exceeds the maximum size of " + (MAX_UPLOAD_BYTES / (1024 * 1024)) + " MB");
+        }
+
+        BufferedImage image = decode(source);
+
+        Map<ImageVariant, ProcessedImage> renditions = new EnumMap<>(ImageVariant.class);
+        BufferedImage previous = image;
+        // Largest first, so each smaller size is scaled down from the previous one instead of the full source
+        for (int i = ImageVariant.values().length - 1; i >= 0; i--) {
+            ImageVariant variant = ImageVariant.values()[i];
+            previous = scaleToFit(previous, variant.getMaxDimension());
+            renditions.put(variant, encode(previous));
+        }
+        return renditions;
+    }
+
+    private BufferedImage decode(byte[] source) {
+        try (ImageInputStream input = new MemoryCacheImageInputStream(new ByteArrayInputStream(source))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IllegalArgumentException("Unsupported image format");
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                String format = reader.getFormatName().toLowerCase(Locale.ROOT);
+                if (!SUPPORTED_FORMATS.contains(format)) {
+                    throw new IllegalArgumentException("Unsupported image format: " + format);
+                }
+
+                reader.setInput(input, true, true);
+                // Check the header dimensions before decoding so a tiny file can't expand into gigabytes of pixels
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > MAX_SOURCE_PIXELS) {
+                    throw new IllegalArgumentException("Image dimensions are too large");
+                }
+
+                BufferedImage image = reader.read(0);
+                if (image == null) {
+                    throw new IllegalArgumentException("Could not decode image");
+                }
+                return image;
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not read image: " + e.getMessage());
+        }
+    }
+
+    private BufferedImage scaleToFit(BufferedImage source, int maxDimension) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        if (width <= maxDimension && height <= maxDimension) {
+            return source;
+        }
+
+        double scale = (double) maxDimension / Math.max(width, height);
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        // Halve in steps first; a single bilinear pass over a large reduction skips most source pixels
+        BufferedImage current = source;
+        while (current.getWidth() / 2 >= targetWidth && current.getHeight() / 2 >= targetHeight) {
+            current = resize(current, current.getWidth() / 2, current.getHeight() / 2);
+        }
+        if (current.getWidth() != targetWidth || current.getHeight() != targetHeight) {
+            current = resize(current, targetWidth, targetHeight);
+        }
+        return current;
+    }
+
+    private BufferedImage resize(BufferedImage source, int width, int height) {
+        int type = source.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage target = new BufferedImage(width, height, type);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private ProcessedImage encode(BufferedImage image) {
+        try {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            if (image.getColorModel().hasAlpha()) {
+                // Keep transparency; JPEG has no alpha channel
+                ImageIO.write(image, "png", output);
+                return new ProcessedImage(output.toByteArray(), "image/png", image.getWidth(), image.getHeight());
+            }
+
+            BufferedImage rgb = toRgb(image);
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+            try (ImageOutputStream imageOutput = new MemoryCacheImageOutputStream(output)) {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(JPEG_QUALITY);
+                writer.setOutput(imageOutput);
+                writer.write(null, new IIOImage(rgb, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            return new ProcessedImage(output.toByteArray(), "image/jpeg", rgb.getWidth(), rgb.getHeight());
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode image", e);
+        }
+    }
+
+    private BufferedImage toRgb(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB || image.getType() == BufferedImage.TYPE_3BYTE_BGR) {
+            return image;
+        }
+        return resize(image, image.getWidth(), image.getHeight());
+    }
+
+    /**
+     * Sniff the image type from its magic bytes; legacy images were stored without a content type
+     */
+    public static String detectContentType(byte[] data) {
+        if (data.length >= 3 && (data[0] & 0xFF) == 0xFF && (data[1] & 0xFF) == 0xD8 && (data[2] & 0xFF) == 0xFF) {
+            return "image/jpeg";
+        }
+        if (data.length >= 8 && (data[0] & 0xFF) == 0x89 && data[1] == 'P' && data[2] == 'N' && data[3] == 'G') {
+            return "image/png";
+        }
+        if (data.length >= 4 && data[0] == 'G' && data[1] == 'I' && data[2] == 'F' && data[3] == '8') {
+            return "image/gif";
+        }
+        if (data.length >= 12 && data[0] == 'R' && data[1] == 'I' && data[2] == 'F' && data[3] == 'F'
+                && data[8] == 'W' && data[9] == 'E' && data[10] == 'B' && data[11] == 'P') {
+            return "image/webp";
+        }
+        return "application/octet-stream";
+    }
+}
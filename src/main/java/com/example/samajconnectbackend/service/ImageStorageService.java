@@ -0,0 +1,80 @@
+package com.example.samajconnectbackend.service;
+
+import com.example.samajconnectbackend.entity.ImageOwnerType;
+import com.example.samajconnectbackend.entity.ImageRendition;
+import com.example.samajconnectbackend.entity.ImageVariant;
+import com.example.samajconnectbackend.repository.ImageRenditionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Service
+public class ImageStorageService {
+
+    @Autowired
+    private ImageRenditionRepository imageRenditionRepository;
+
+    /**
+     * Replace all renditions of an owner's image.
+     * Callers run {@link ImageProcessingService#process(byte[])} first, so a bad upload fails before any write.
+     */
+    @Transactional
+    public void replaceRenditions(ImageOwnerType ownerType, Long ownerId,
+                                  Map<ImageVariant, ImageProcessingService.ProcessedImage> renditions) {
+        imageRenditionRepository.deleteByOwner(ownerType, ownerId);
+
+        List<ImageRendition> entities = new ArrayList<>();
+        renditions.forEach((variant, image) -> {
+            ImageRendition rendition = new ImageRendition();
+            rendition.setOwnerType(ownerType);
+            rendition.setOwnerId(ownerId);
+            rendition.setVariant(variant);
+            rendition.setContentType(image.getContentType());
+            rendition.setWidth(image.getWidth());
+            rendition.setHeight(image.getHeight());
+            rendition.setData(image.getData());
+            entities.add(rendition);
+        });
+        imageRenditionRepository.saveAll(entities);
+    }
+
+    /**
+     * Remove every rendition of an owner's image
+     */
+    @Transactional
+    public void deleteRenditions(ImageOwnerType ownerType, Long ownerId) {
+        imageRenditionRepository.deleteByOwner(ownerType, ownerId);
+    }
+
+    /**
+     * The requested rendition. A missing MEDIUM one falls back to ORIGINAL: legacy images that couldn't be
+     * resized are stored only as ORIGINAL. SMALL never falls back, so lists don't serve full-size bytes.
+     */
+    @Transactional(readOnly = true)
+    public Optional<ImageRendition> findRendition(ImageOwnerType ownerType, Long ownerId, ImageVariant variant) {
+        Optional<ImageRendition> rendition =
+                imageRenditionRepository.findByOwnerTypeAndOwnerIdAndVariant(ownerType, ownerId, variant);
+        if (rendition.isEmpty() && variant == ImageVariant.MEDIUM) {
+            return imageRenditionRepository.findByOwnerTypeAndOwnerIdAndVariant(ownerType, ownerId, ImageVariant.ORIGINAL);
+        }
+        return rendition;
+    }
+
+    /**
+     * New version stamp for an image, in whole seconds (HTTP dates have no millis) and always
+     * ahead of the previous one so two uploads within the same second still get distinct URLs
+     */
+    public static long nextVersion(Long previousVersion) {
+        long now = Instant.now().getEpochSecond() * 1000L;
+        if (previousVersion != null && previousVersion >= now) {
+            return previousVersion + 1000L;
+        }
+        return now;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.samajconnectbackend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque cursor for keyset paging on (name, id). Clients pass it back unchanged; its content is
+ * the sort key of the last row returned, so the next page starts strictly after that row.
+ */
+final class KeysetCursor {
+
+    /** Start of the key space; names are non-null and ids positive, so every row sorts after it */
+    static final KeysetCursor START = new KeysetCursor("", 0L);
+
+    private final String name;
+    private final Long id;
+
+    KeysetCursor(String name, Long id) {
+        this.name = name;
+        this.id = id;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    Long getId() {
+        return id;
+    }
+
+    String encode() {
+        String raw = id + ":" + name;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor from a client, or START when none was given
+     */
+    static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            if (separator < 1) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new KeysetCursor(raw.substring(separator + 1), Long.parseLong(raw.substring(0, separator)));
+        } catch (IllegalArgumentException e) {
+            // Also covers NumberFormatException and malformed Base64
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package com.example.samajconnectbackend.service;
+
+import com.example.samajconnectbackend.entity.RelationshipSide;
+import com.example.samajconnectbackend.entity.RelationshipType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+/**
+ * Immutable snapshot of active relationships, stored as compressed sparse rows: users are numbered by
+ * ascending id, and each user's outgoing edges sit next to each other in parallel primitive arrays, ordered
+ * by related user. Edge labels are {@link RelationshipType} and {@link RelationshipSide} ordinals.
+ * <p>
+ * Changes produce a new snapshot, so readers never need a lock.
+ */
+public final class KinshipGraph {
+
+    static final KinshipGraph EMPTY = new KinshipGraph(new long[0], new int[1], new int[0], new byte[0],
+            new byte[0], new int[0], new long[0]);
+
+    private static final RelationshipType[] TYPES = RelationshipType.values();
+    private static final RelationshipSide[] SIDES = RelationshipSide.values();
+    private static final byte NO_SIDE = -1;
+
+    private static final Comparator<Edge> ROW_ORDER = Comparator.comparingLong(Edge::getUserId)
+            .thenComparingLong(Edge::getRelatedUserId)
+            .thenComparingLong(Edge::getRelationshipId);
+
+    private final long[] userIds;          // node -> user id, ascending
+    private final int[] offsets;           // node -> first edge; offsets[node + 1] is one past its last
+    private final int[] targets;           // edge -> related node
+    private final byte[] types;            // edge -> RelationshipType ordinal
+    private final byte[] sides;            // edge -> RelationshipSide ordinal, NO_SIDE when unset
+    private final int[] generationLevels;  // edge -> generation level
+    private final long[] relationshipIds;  // edge -> user_relationships.id
+
+    private KinshipGraph(long[] userIds, int[] offsets, int[] targets, byte[] types, byte[] sides,
+                         int[] generationLevels, long[] relationshipIds) {
+        this.userIds = userIds;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.types = types;
+        this.sides = sides;
+        this.generationLevels = generationLevels;
+        this.relationshipIds = relationshipIds;
+    }
+
+    /**
+     * Build a graph from a set of edges
+     */
+    static KinshipGraph of(Collection<Edge> edges) {
+        return EMPTY.rebuilt(e -> true, edges);
+    }
+
+    /**
+     * A copy of this graph with the given edges added, replacing any edge with the same relationship id
+     */
+    KinshipGraph withEdges(Collection<Edge> upserted) {
+        long[] replacedIds = upserted.stream().mapToLong(Edge::getRelationshipId).sorted().toArray();
+        return rebuilt(e -> Arrays.binarySearch(replacedIds, relationshipIds[e]) < 0, upserted);
+    }
+
+    /**
+     * A copy of this graph without any edge between the two users, in either direction
+     */
+    KinshipGraph withoutPair(long userId, long relatedUserId) {
+        int a = indexOf(userId);
+        int b = indexOf(relatedUserId);
+        if (a < 0 || b < 0) {
+            return this;
+        }
+        return rebuilt(e -> !(inRow(a, e) && targets[e] == b) && !(inRow(b, e) && targets[e] == a), List.of());
+    }
+
+    /**
+     * Copy the kept edges and merge in the added ones. Both are already in row order, so this is a
+     * linear merge rather than a rebuild; users left without any edge are dropped.
+     */
+    private KinshipGraph rebuilt(IntPredicate keepEdge, Collection<Edge> added) {
+        List<Edge> additions = new ArrayList<>(added);
+        additions.sort(ROW_ORDER);
+
+        boolean[] kept = new boolean[targets.length];
+        boolean[] live = new boolean[userIds.length];
+        int keptCount = 0;
+        for (int node = 0; node < userIds.length; node++) {
+            for (int e = offsets[node]; e < offsets[node + 1]; e++) {
+                if (keepEdge.test(e)) {
+                    kept[e] = true;
+                    live[node] = true;
+                    live[targets[e]] = true;
+                    keptCount++;
+                }
+            }
+        }
+
+        long[] addedIds = new long[additions.size() * 2];
+        for (int i = 0; i < additions.size(); i++) {
+            addedIds[2 * i] = additions.get(i).userId;
+            addedIds[2 * i + 1] = additions.get(i).relatedUserId;
+        }
+        Arrays.sort(addedIds);
+
+        // Merge the users that keep an edge with the users of the added edges
+        long[] ids = new long[userIds.length + addedIds.length];
+        int[] oldNodeOf = new int[ids.length];
+        int[] newNodeOf = new int[userIds.length];
+        int nodeCount = 0;
+        int i = 0;
+        int j = 0;
+        while (i < userIds.length || j < addedIds.length) {
+            if (i < userIds.length && !live[i]) {
+                newNodeOf[i++] = -1;
+            } else if (j < addedIds.length && nodeCount > 0 && addedIds[j] == ids[nodeCount - 1]) {
+                j++;
+            } else if (j == addedIds.length || (i < userIds.length && userIds[i] <= addedIds[j])) {
+                oldNodeOf[nodeCount] = i;
+                newNodeOf[i] = nodeCount;
+                ids[nodeCount++] = userIds[i++];
+            } else {
+                oldNodeOf[nodeCount] = -1;
+                ids[nodeCount++] = addedIds[j++];
+            }
+        }
+        ids = Arrays.copyOf(ids, nodeCount);
+
+        int edgeCount = keptCount + additions.size();
+        int[] newOffsets = new int[nodeCount + 1];
+        int[] newTargets = new int[edgeCount];
+        byte[] newTypes = new byte[edgeCount];
+        byte[] newSides = new byte[edgeCount];
+        int[] newGenerationLevels = new int[edgeCount];
+        long[] newRelationshipIds = new long[edgeCount];
+
+        int out = 0;
+        int next = 0;
+        for (int node = 0; node < nodeCount; node++) {
+            newOffsets[node] = out;
+            int old = oldNodeOf[node];
+            int e = old >= 0 ? offsets[old] : 0;
+            int end = old >= 0 ? offsets[old + 1] : 0;
+            while (true) {
+                while (e < end && !kept[e]) {
+                    e++;
+                }
+                boolean hasOld = e < end;
+                boolean hasAdded = next < additions.size() && additions.get(next).userId == ids[node];
+                if (!hasOld && !hasAdded) {
+                    break;
+                }
+                if (hasOld && (!hasAdded || compare(e, additions.get(next)) <= 0)) {
+                    newTargets[out] = newNodeOf[targets[e]];
+                    newTypes[out] = types[e];
+                    newSides[out] = sides[e];
+                    newGenerationLevels[out] = generationLevels[e];
+                    newRelationshipIds[out] = relationshipIds[e];
+                    e++;
+                } else {
+                    Edge edge = additions.get(next++);
+                    newTargets[out] = Arrays.binarySearch(ids, edge.relatedUserId);
+                    newTypes[out] = (byte) edge.relationshipType.ordinal();
+                    newSides[out] = edge.relationshipSide != null ? (byte) edge.relationshipSide.ordinal() : NO_SIDE;
+                    newGenerationLevels[out] = edge.generationLevel;
+                    newRelationshipIds[out] = edge.relationshipId;
+                }
+                out++;
+            }
+        }
+        newOffsets[nodeCount] = out;
+
+        return new KinshipGraph(ids, newOffsets, newTargets, newTypes, newSides, newGenerationLevels,
+                newRelationshipIds);
+    }
+
+    // Row order of an existing edge relative to an added edge from the same user
+    private int compare(int e, Edge edge) {
+        int byTarget = Long.compare(userIds[targets[e]], edge.relatedUserId);
+        return byTarget != 0 ? byTarget : Long.compare(relationshipIds[e], edge.relationshipId);
+    }
+
+    private boolean inRow(int node, int e) {
+        return e >= offsets[node] && e < offsets[node + 1];
+    }
+
+    public int nodeCount() {
+        return userIds.length;
+    }
+
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    /**
+     * Outgoing edges of a user, ordered by related user id
+     */
+    public List<Edge> edgesFrom(long userId) {
+        return edgesFrom(userId, e -> true);
+    }
+
+    public List<Edge> edgesAtGeneration(long userId, int generationLevel) {
+        return edgesFrom(userId, e -> generationLevels[e] == generationLevel);
+    }
+
+    public List<Edge> edgesOnSide(long userId, RelationshipSide side) {
+        return edgesFrom(userId, e -> sides[e] == side.ordinal());
+    }
+
+    private List<Edge> edgesFrom(long userId, IntPredicate edgeFilter) {
+        int node = indexOf(userId);
+        List<Edge> edges = new ArrayList<>();
+        if (node >= 0) {
+            for (int e = offsets[node]; e < offsets[node + 1]; e++) {
+                if (edgeFilter.test(e)) {
+                    edges.add(edgeAt(node, e));
+                }
+            }
+        }
+        return edges;
+    }
+
+    /**
+     * Distinct ids of the users a user has an edge to, ascending
+     */
+    public long[] relatedUserIds(long userId) {
+        int node = indexOf(userId);
+        if (node < 0) {
+            return new long[0];
+        }
+        long[] related = new long[offsets[node + 1] - offsets[node]];
+        int count = 0;
+        for (int e = offsets[node]; e < offsets[node + 1]; e++) {
+            long relatedUserId = userIds[targets[e]];
+            // Several edges to the same user are adjacent because rows are ordered by target
+            if (count == 0 || related[count - 1] != relatedUserId) {
+                related[count++] = relatedUserId;
+            }
+        }
+        return Arrays.copyOf(related, count);
+    }
+
+    /**
+     * Type of the relationship from a user to a related user, or null when there is none
+     */
+    public RelationshipType relationshipBetween(long userId, long relatedUserId) {
+        int node = indexOf(userId);
+        int target = indexOf(relatedUserId);
+        if (node < 0 || target < 0) {
+            return null;
+        }
+        int e = Arrays.binarySearch(targets, offsets[node], offsets[node + 1], target);
+        return e >= 0 ? TYPES[types[e]] : null;
+    }
+
+    /**
+     * Ids present in both ascending arrays, such as the related users of two members from different graphs
+     */
+    public static long[] intersect(long[] sortedIds, long[] otherSortedIds) {
+        long[] common = new long[Math.min(sortedIds.length, otherSortedIds.length)];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < sortedIds.length && j < otherSortedIds.length) {
+            if (sortedIds[i] < otherSortedIds[j]) {
+                i++;
+            } else if (sortedIds[i] > otherSortedIds[j]) {
+                j++;
+            } else {
+                common[count++] = sortedIds[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(common, count);
+    }
+
+    int indexOf(long userId) {
+        int node = Arrays.binarySearch(userIds, userId);
+        return node >= 0 ? node : -1;
+    }
+
+    private Edge edgeAt(int node, int e) {
+        return new Edge(relationshipIds[e], userIds[node], userIds[targets[e]], TYPES[types[e]],
+                sides[e] == NO_SIDE ? null : SIDES[sides[e]], generationLevels[e]);
+    }
+
+    /**
+     * One directed relationship, as stored in a user_relationships row
+     */
+    public static final class Edge {
+        private final long relationshipId;
+        private final long userId;
+        private final long relatedUserId;
+        private final RelationshipType relationshipType;
+        private final RelationshipSide relationshipSide;
+        private final int generationLevel;
+
+        public Edge(long relationshipId, long userId, long relatedUserId, RelationshipType relationshipType,
+                    RelationshipSide relationshipSide, int generationLevel) {
+            this.relationshipId = relationshipId;
+            this.userId = userId;
+            this.relatedUserId = relatedUserId;
+            this.relationshipType = relationshipType;
+            this.relationshipSide = relationshipSide;
+            this.generationLevel = generationLevel;
+        }
+
+        public long getRelationshipId() { return relationshipId; }
+        public long getUserId() { return userId; }
+        public long getRelatedUserId() { return relatedUserId; }
+        public RelationshipType getRelationshipType() { return relationshipType; }
+        public RelationshipSide getRelationshipSide() { return relationshipSide; }
+        public int getGenerationLevel() { return generationLevel; }
+    }
+}
@@ -0,0 +1,305 @@
+package com.example.samajconnectbackend.service;
+
+import com.example.samajconnectbackend.entity.RelationshipSide;
+import com.example.samajconnectbackend.entity.RelationshipType;
+import com.example.samajconnectbackend.entity.UserRelationship;
+import com.example.samajconnectbackend.event.KinshipChangedEvent;
+import com.example.samajconnectbackend.repository.UserRelationshipRepository;
+import com.example.samajconnectbackend.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * In-memory {@link KinshipGraph} of each samaj's active relationships. A graph holds the edges owned by the
+ * samaj's members; it is loaded on first use and is then kept current from {@link KinshipChangedEvent}s,
+ * so family tree reads and relationship validation don't go back to user_relationships.
+ * <p>
+ * Events only cover changes made on this instance. Changes made elsewhere (another instance, a manual fix
+ * in SQL) are picked up by comparing a cheap per-samaj watermark of user_relationships with the one the
+ * graph was loaded at, at most every check-interval-ms and always before validating a new relationship;
+ * a changed watermark reloads the graph. Graphs are also reloaded after max-age-ms, for edits that don't
+ * bump updated_at, and dropped after idle-ms without use.
+ */
+@Service
+public class KinshipGraphService {
+
+    private static final Logger logger = LoggerFactory.getLogger(KinshipGraphService.class);
+
+    @Autowired
+    private UserRelationshipRepository relationshipRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // Loads run in their own transaction so a graph never picks up the caller's uncommitted writes
+    private final TransactionTemplate loadTransaction;
+
+    @Value("${app.kinship.graph.check-interval-ms:10000}")
+    private long checkIntervalMillis;
+
+    @Value("${app.kinship.graph.max-age-ms:600000}")
+    private long maxAgeMillis;
+
+    @Value("${app.kinship.graph.idle-ms:1800000}")
+    private long idleMillis;
+
+    private final ConcurrentHashMap<Long, SamajGraph> graphs = new ConcurrentHashMap<>();
+    // Members never move between samajs; entries are dropped with their samaj's graph
+    private final ConcurrentHashMap<Long, Long> samajByUser = new ConcurrentHashMap<>();
+
+    public KinshipGraphService(PlatformTransactionManager transactionManager) {
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+        this.loadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.loadTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Active outgoing relationships of a user, ordered by related user id. They are detached copies
+     * and their user associations are not populated.
+     */
+    public List<UserRelationship> activeRelationshipsOf(Long userId) {
+        return toRelationships(graphOfUser(userId).edgesFrom(userId));
+    }
+
+    public List<UserRelationship> activeRelationshipsAtGeneration(Long userId, int generationLevel) {
+        return toRelationships(graphOfUser(userId).edgesAtGeneration(userId, generationLevel));
+    }
+
+    public List<UserRelationship> activeRelationshipsOnSide(Long userId, RelationshipSide side) {
+        return toRelationships(graphOfUser(userId).edgesOnSide(userId, side));
+    }
+
+    /**
+     * Users both users are related to, ascending by id
+     */
+    public long[] mutualRelativeIds(Long userId1, Long userId2) {
+        return KinshipGraph.intersect(graphOfUser(userId1).relatedUserIds(userId1),
+                graphOfUser(userId2).relatedUserIds(userId2));
+    }
+
+    /**
+     * Shortest chain of relationships from one user to another, searched at most maxDepth hops deep
+     */
+    Optional<List<KinshipPathFinder.Step>> shortestPath(Long fromUserId, Long toUserId, int maxDepth) {
+        return new KinshipPathFinder(userId -> graphOfUser(userId)).shortestPath(fromUserId, toUserId, maxDepth);
+    }
+
+    /**
+     * The graph holding a user's outgoing relationships; empty when the user doesn't exist
+     */
+    public KinshipGraph graphOfUser(Long userId) {
+        Long samajId = samajOf(userId);
+        return samajId != null ? graphOfSamaj(samajId) : KinshipGraph.EMPTY;
+    }
+
+    public KinshipGraph graphOfSamaj(Long samajId) {
+        SamajGraph holder = graphs.computeIfAbsent(samajId, id -> new SamajGraph());
+        long now = System.currentTimeMillis();
+        holder.lastUsedMillis = now;
+        if (holder.graph == null) {
+            holder.loadIfAbsent(() -> load(samajId));
+        } else if (holder.claimCheck(now, checkIntervalMillis)) {
+            reloadIfChanged(samajId, holder, now);
+        }
+        return holder.graph;
+    }
+
+    /**
+     * Reload the graphs of the users' samajs now if user_relationships changed since they were loaded,
+     * for callers that must not act on a stale graph
+     */
+    public void reloadIfChanged(Long... userIds) {
+        for (Long userId : userIds) {
+            Long samajId = samajOf(userId);
+            SamajGraph holder = samajId != null ? graphs.get(samajId) : null;
+            if (holder != null && holder.graph != null) {
+                long now = System.currentTimeMillis();
+                holder.checkedAtMillis.set(now);
+                reloadIfChanged(samajId, holder, now);
+            }
+        }
+    }
+
+    /**
+     * Drop graphs that haven't been used for idle-ms, and the samaj lookups of their members
+     */
+    @Scheduled(fixedDelayString = "${app.kinship.graph.sweep-interval-ms:60000}")
+    public void evictIdleGraphs() {
+        long cutoff = System.currentTimeMillis() - idleMillis;
+        graphs.values().removeIf(holder -> holder.lastUsedMillis < cutoff);
+        samajByUser.values().removeIf(samajId -> !graphs.containsKey(samajId));
+    }
+
+    private void reloadIfChanged(Long samajId, SamajGraph holder, long now) {
+        try {
+            String watermark = watermarkOf(samajId);
+            if (now - holder.loadedAtMillis >= maxAgeMillis || !Objects.equals(watermark, holder.watermark)) {
+                holder.reload(() -> load(samajId));
+            }
+        } catch (RuntimeException e) {
+            // Keep serving the current snapshot; the next check tries again
+            logger.warn("Could not check kinship graph of samaj {} for changes: {}", samajId, e.getMessage());
+        }
+    }
+
+    /**
+     * Apply a relationship change once its transaction has committed; samajs without a graph are
+     * skipped because they will read the committed data when they are first used. Runs ahead of the
+     * other listeners of the event, which read the updated graph.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onKinshipChanged(KinshipChangedEvent event) {
+        if (graphs.isEmpty()) {
+            return;
+        }
+
+        Map<Long, List<KinshipGraph.Edge>> upsertedBySamaj = new HashMap<>();
+        for (KinshipGraph.Edge edge : event.getUpserted()) {
+            Long samajId = samajOf(edge.getUserId());
+            if (samajId != null) {
+                upsertedBySamaj.computeIfAbsent(samajId, id -> new ArrayList<>()).add(edge);
+            }
+        }
+        upsertedBySamaj.forEach((samajId, edges) -> update(samajId, graph -> graph.withEdges(edges)));
+
+        if (event.getRemovedUserId() != null) {
+            long userId = event.getRemovedUserId();
+            long relatedUserId = event.getRemovedRelatedUserId();
+            UnaryOperator<KinshipGraph> removal = graph -> graph.withoutPair(userId, relatedUserId);
+            Long samajId = samajOf(userId);
+            Long relatedSamajId = samajOf(relatedUserId);
+            if (samajId != null) {
+                update(samajId, removal);
+            }
+            if (relatedSamajId != null && !relatedSamajId.equals(samajId)) {
+                update(relatedSamajId, removal);
+            }
+        }
+    }
+
+    Long samajOf(Long userId) {
+        Long samajId = samajByUser.get(userId);
+        if (samajId == null) {
+            samajId = userRepository.findSamajIdById(userId).orElse(null);
+            if (samajId != null) {
+                samajByUser.put(userId, samajId);
+            }
+        }
+        return samajId;
+    }
+
+    private List<UserRelationship> toRelationships(List<KinshipGraph.Edge> edges) {
+        List<UserRelationship> relationships = new ArrayList<>(edges.size());
+        for (KinshipGraph.Edge edge : edges) {
+            UserRelationship relationship = new UserRelationship();
+            relationship.setId(edge.getRelationshipId());
+            relationship.setUserId(edge.getUserId());
+            relationship.setRelatedUserId(edge.getRelatedUserId());
+            relationship.setRelationshipType(edge.getRelationshipType());
+            relationship.setRelationshipSide(edge.getRelationshipSide());
+            relationship.setGenerationLevel(edge.getGenerationLevel());
+            relationship.setIsActive(true);
+            relationships.add(relationship);
+        }
+        return relationships;
+    }
+
+    private void update(Long samajId, UnaryOperator<KinshipGraph> change) {
+        SamajGraph holder = graphs.get(samajId);
+        if (holder != null) {
+            holder.update(change);
+        }
+    }
+
+    private String watermarkOf(Long samajId) {
+        return loadTransaction.execute(status -> relationshipRepository.findEdgeWatermarkBySamajId(samajId));
+    }
+
+    private Loaded load(Long samajId) {
+        long started = System.nanoTime();
+        // Read the watermark first: a write landing between the two reads makes the next check reload
+        String watermark = watermarkOf(samajId);
+        List<Object[]> rows = loadTransaction.execute(status -> relationshipRepository.findActiveEdgeRowsBySamajId(samajId));
+
+        List<KinshipGraph.Edge> edges = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            KinshipGraph.Edge edge = new KinshipGraph.Edge((Long) row[0], (Long) row[1], (Long) row[2],
+                    (RelationshipType) row[3], (RelationshipSide) row[4], (Integer) row[5]);
+            edges.add(edge);
+            samajByUser.putIfAbsent(edge.getUserId(), samajId);
+        }
+        KinshipGraph graph = KinshipGraph.of(edges);
+
+        logger.debug("Loaded kinship graph for samaj {}: {} members, {} edges in {} ms", samajId,
+                graph.nodeCount(), graph.edgeCount(), (System.nanoTime() - started) / 1_000_000);
+        return new Loaded(graph, watermark);
+    }
+
+    private record Loaded(KinshipGraph graph, String watermark) {
+    }
+
+    private static final class SamajGraph {
+        volatile KinshipGraph graph;
+        // Watermark of user_relationships the graph was loaded at; local changes don't move it, so the
+        // first check after one reloads the graph
+        volatile String watermark;
+        volatile long loadedAtMillis;
+        final AtomicLong checkedAtMillis = new AtomicLong();
+        volatile long lastUsedMillis;
+
+        /**
+         * Load the snapshot on first use. Changes that arrive while loading wait for the monitor and are
+         * applied on top of it.
+         */
+        synchronized void loadIfAbsent(Supplier<Loaded> loader) {
+            if (graph == null) {
+                reload(loader);
+            }
+        }
+
+        synchronized void reload(Supplier<Loaded> loader) {
+            long now = System.currentTimeMillis();
+            Loaded loaded = loader.get();
+            watermark = loaded.watermark();
+            graph = loaded.graph();
+            loadedAtMillis = now;
+            checkedAtMillis.set(now);
+        }
+
+        /**
+         * Whether a change check is due and the calling thread gets to run it; others keep using the snapshot
+         */
+        boolean claimCheck(long now, long intervalMillis) {
+            long checkedAt = checkedAtMillis.get();
+            return now - checkedAt >= intervalMillis && checkedAtMillis.compareAndSet(checkedAt, now);
+        }
+
+        synchronized void update(UnaryOperator<KinshipGraph> change) {
+            if (graph != null) {
+                graph = change.apply(graph);
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.samajconnectbackend.service;
+
+import com.example.samajconnectbackend.entity.RelationshipType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.LongFunction;
+
+/**
+ * Shortest chain of relationships between two users. A bidirectional breadth-first search grows one
+ * frontier from each user, a whole level at a time, always expanding the smaller one, so a path of
+ * length d costs roughly two searches of depth d / 2 instead of one of depth d.
+ */
+final class KinshipPathFinder {
+
+    private final LongFunction<KinshipGraph> graphOfUser;
+
+    KinshipPathFinder(LongFunction<KinshipGraph> graphOfUser) {
+        this.graphOfUser = graphOfUser;
+    }
+
+    /**
+     * The steps from one user to another, each saying what the step's user is to the user before it;
+     * empty when they aren't connected within maxDepth relationships
+     */
+    Optional<List<Step>> shortestPath(long fromUserId, long toUserId, int maxDepth) {
+        if (fromUserId == toUserId) {
+            return Optional.of(List.of());
+        }
+
+        Map<Long, Visit> forward = new HashMap<>();
+        Map<Long, Visit> backward = new HashMap<>();
+        forward.put(fromUserId, new Visit(fromUserId, null, 0));
+        backward.put(toUserId, new Visit(toUserId, null, 0));
+        List<Long> forwardFrontier = List.of(fromUserId);
+        List<Long> backwardFrontier = List.of(toUserId);
+
+        for (int hops = 1; hops <= maxDepth && !forwardFrontier.isEmpty() && !backwardFrontier.isEmpty(); hops++) {
+            boolean expandForward = forwardFrontier.size() <= backwardFrontier.size();
+            List<Long> next = new ArrayList<>();
+            Long meeting = null;
+            int meetingDepth = Integer.MAX_VALUE;
+
+            if (expandForward) {
+                for (long userId : forwardFrontier) {
+                    KinshipGraph graph = graphOfUser.apply(userId);
+                    int level = forward.get(userId).depth + 1;
+                    for (long relatedUserId : graph.relatedUserIds(userId)) {
+                        if (forward.containsKey(relatedUserId)) {
+                            continue;
+                        }
+                        forward.put(relatedUserId, new Visit(userId, graph.relationshipBetween(userId, relatedUserId), level));
+                        next.add(relatedUserId);
+                        Visit other = backward.get(relatedUserId);
+                        if (other != null && other.depth < meetingDepth) {
+                            meeting = relatedUserId;
+                            meetingDepth = other.depth;
+                        }
+                    }
+                }
+                forwardFrontier = next;
+            } else {
+                for (long userId : backwardFrontier) {
+                    int level = backward.get(userId).depth + 1;
+                    for (long relatedUserId : graphOfUser.apply(userId).relatedUserIds(userId)) {
+                        if (backward.containsKey(relatedUserId)) {
+                            continue;
+                        }
+                        // Walking backwards needs the relationship as the earlier user recorded it
+                        RelationshipType type = graphOfUser.apply(relatedUserId).relationshipBetween(relatedUserId, userId);
+                        if (type == null) {
+                            continue;
+                        }
+                        backward.put(relatedUserId, new Visit(userId, type, level));
+                        next.add(relatedUserId);
+                        Visit other = forward.get(relatedUserId);
+                        if (other != null && other.depth < meetingDepth) {
+                            meeting = relatedUserId;
+                            meetingDepth = other.depth;
+                        }
+                    }
+                }
+                backwardFrontier = next;
+            }
+
+            // Every meeting on this level has the same depth on the expanded side, so the shallowest other side wins
+            if (meeting != null) {
+                return Optional.of(path(meeting, fromUserId, toUserId, forward, backward));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static List<Step> path(long meeting, long fromUserId, long toUserId,
+                                   Map<Long, Visit> forward, Map<Long, Visit> backward) {
+        List<Step> steps = new ArrayList<>();
+        for (long userId = meeting; userId != fromUserId; ) {
+            Visit visit = forward.get(userId);
+            steps.add(new Step(userId, visit.type));
+            userId = visit.via;
+        }
+        Collections.reverse(steps);
+        for (long userId = meeting; userId != toUserId; ) {
+            Visit visit = backward.get(userId);
+            steps.add(new Step(visit.via, visit.type));
+            userId = visit.via;
+        }
+        return steps;
+    }
+
+    /**
+     * One hop of a path: the user reached, and what they are to the previous user
+     */
+    static final class Step {
+        private final long userId;
+        private final RelationshipType relationshipType;
+
+        Step(long userId, RelationshipType relationshipType) {
+            this.userId = userId;
+            this.relationshipType = relationshipType;
+        }
+
+        long getUserId() { return userId; }
+        RelationshipType getRelationshipType() { return relationshipType; }
+    }
+
+    // How a search reached a user: the neighbour it came through, the relationship between them, and its depth
+    private static final class Visit {
+        final long via;
+        final RelationshipType type;
+        final int depth;
+
+        Visit(long via, RelationshipType type, int depth) {
+            this.via = via;
+            this.type = type;
+            this.depth = depth;
+        }
+    }
+}
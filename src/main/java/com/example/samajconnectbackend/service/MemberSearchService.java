@@ -0,0 +1,67 @@
+package com.example.samajconnectbackend.service;
+
+import com.example.samajconnectbackend.entity.User;
+import com.example.samajconnectbackend.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+
+/**
+ * Member text search. Uses the pg_trgm indexes and similarity ranking when the extension is
+ * available (see MemberSearchIndexInitializer), otherwise the plain LIKE queries.
+ */
+@Service
+public class MemberSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MemberSearchService.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private volatile boolean trigramSearchEnabled = false;
+
+    public boolean isTrigramSearchEnabled() {
+        return trigramSearchEnabled;
+    }
+
+    public void setTrigramSearchEnabled(boolean trigramSearchEnabled) {
+        this.trigramSearchEnabled = trigramSearchEnabled;
+        logger.info("Member search using {}", trigramSearchEnabled ? "pg_trgm ranked queries" : "LIKE queries");
+    }
+
+    /**
+     * Search members of a samaj, excluding the current user
+     */
+    public Page<User> searchSamajMembers(Long samajId, Long currentUserId, String query, Pageable pageable) {
+        if (trigramSearchEnabled) {
+            String normalized = normalize(query);
+            return userRepository.searchSamajMembersRanked(samajId, currentUserId, normalized, pattern(normalized), pageable);
+        }
+        return userRepository.findSamajMembersByQuery(samajId, currentUserId, query, pageable);
+    }
+
+    /**
+     * Search all members of a samaj
+     */
+    public Page<User> searchMembersBySamajId(Long samajId, String query, Pageable pageable) {
+        if (trigramSearchEnabled) {
+            String normalized = normalize(query);
+            return userRepository.searchMembersBySamajIdRanked(samajId, normalized, pattern(normalized), pageable);
+        }
+        return userRepository.findSamajMembersBySamajIdAndQuery(samajId, query, pageable);
+    }
+
+    private String normalize(String query) {
+        return query.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Same '%q%' semantics as the LIKE queries, so both paths match the same members
+    private String pattern(String normalized) {
+        return "%" + normalized + "%";
+    }
+}
@@ -0,0 +1,297 @@
+package com.example.samajconnectbackend.service;
+
+import com.example.samajconnectbackend.event.MemberChangedEvent;
+import com.example.samajconnectbackend.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Optional in-memory typeahead index of samaj members (name, email, phone), one per samaj.
+ * An index is built from the database on the first search in its samaj and is then kept current
+ * from {@link MemberChangedEvent}s, so searches are answered without touching the database.
+ * Indexes of the least recently searched samajs are dropped when the memory budget is exceeded.
+ * No index is kept for a samaj without members (or an id that isn't a samaj).
+ */
+@Service
+public class MemberTypeaheadIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(MemberTypeaheadIndex.class);
+
+    private static final int GRAM_LENGTH = 3;
+
+    // Map entry, lock and empty collections of an index, charged against the budget before any member
+    private static final long INDEX_OVERHEAD_BYTES = 1024;
+
+    @Value("${app.search.typeahead.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.search.typeahead.memory-budget-mb:32}")
+    private long memoryBudgetMb;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final ConcurrentHashMap<Long, SamajIndex> indexes = new ConcurrentHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Members of a samaj whose name, email or phone contains the query, best matches first
+     */
+    public List<Member> search(Long samajId, String query, Long excludeUserId, int limit) {
+        SamajIndex index = indexes.computeIfAbsent(samajId, id -> new SamajIndex());
+        if (index.ensureBuilt(() -> loadMembers(samajId))) {
+            if (index.isEmpty()) {
+                // Nothing to search; the next search (or a member joining) reads the database again
+                indexes.remove(samajId, index);
+                return new ArrayList<>();
+            }
+            logger.debug("Built typeahead index for samaj {} (~{} KB)", samajId, index.estimatedBytes / 1024);
+            enforceBudget(samajId);
+        }
+        index.lastAccess = System.nanoTime();
+        return index.search(normalize(query), excludeUserId, limit);
+    }
+
+    /**
+     * Apply a member change once its transaction has committed; samajs without an index are
+     * skipped because they will read the committed data when they are first searched
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMemberChanged(MemberChangedEvent event) {
+        if (!enabled || event.getSamajId() == null) {
+            return;
+        }
+        SamajIndex index = indexes.get(event.getSamajId());
+        if (index != null) {
+            index.upsert(new Member(event.getUserId(), event.getName(), event.getEmail(),
+                    event.getPhoneNumber(), event.getProfileImageVersion()));
+        }
+    }
+
+    private List<Member> loadMembers(Long samajId) {
+        List<Member> members = new ArrayList<>();
+        for (Object[] row : userRepository.findTypeaheadRowsBySamajId(samajId)) {
+            members.add(new Member((Long) row[0], (String) row[1], (String) row[2], (String) row[3], (Long) row[4]));
+        }
+        return members;
+    }
+
+    private void enforceBudget(Long justBuiltSamajId) {
+        long budget = memoryBudgetMb * 1024L * 1024L;
+        long total = indexes.values().stream().mapToLong(index -> index.estimatedBytes).sum();
+        while (total > budget) {
+            Map.Entry<Long, SamajIndex> coldest = indexes.entrySet().stream()
+                    .filter(entry -> !entry.getKey().equals(justBuiltSamajId))
+                    .min(Comparator.comparingLong(entry -> entry.getValue().lastAccess))
+                    .orElse(null);
+            if (coldest == null) {
+                break;
+            }
+            if (indexes.remove(coldest.getKey(), coldest.getValue())) {
+                total -= coldest.getValue().estimatedBytes;
+                logger.debug("Evicted typeahead index for samaj {}", coldest.getKey());
+            }
+        }
+    }
+
+    static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    static Set<String> grams(String value) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    /**
+     * Indexed snapshot of one member
+     */
+    public static final class Member {
+        private final Long userId;
+        private final String name;
+        private final String email;
+        private final String phoneNumber;
+        private final Long profileImageVersion;
+        private final String nameKey;
+        private final String emailKey;
+        private final String phoneKey;
+
+        Member(Long userId, String name, String email, String phoneNumber, Long profileImageVersion) {
+            this.userId = userId;
+            this.name = name;
+            this.email = email;
+            this.phoneNumber = phoneNumber;
+            this.profileImageVersion = profileImageVersion;
+            this.nameKey = normalize(name);
+            this.emailKey = normalize(email);
+            this.phoneKey = normalize(phoneNumber);
+        }
+
+        public Long getUserId() { return userId; }
+        public String getName() { return name; }
+        public String getEmail() { return email; }
+        public String getPhoneNumber() { return phoneNumber; }
+        public Long getProfileImageVersion() { return profileImageVersion; }
+
+        Set<String> grams() {
+            Set<String> grams = MemberTypeaheadIndex.grams(nameKey);
+            grams.addAll(MemberTypeaheadIndex.grams(emailKey));
+            grams.addAll(MemberTypeaheadIndex.grams(phoneKey));
+            return grams;
+        }
+
+        boolean matches(String query) {
+            return nameKey.contains(query) || emailKey.contains(query) || phoneKey.contains(query);
+        }
+
+        // Name prefix first, then a word in the name, then anything else that matched
+        int rank(String query) {
+            if (nameKey.startsWith(query)) {
+                return 0;
+            }
+            if (nameKey.contains(" " + query)) {
+                return 1;
+            }
+            return nameKey.contains(query) ? 2 : 3;
+        }
+
+        long estimatedBytes(int gramCount) {
+            int chars = nameKey.length() + emailKey.length() + phoneKey.length();
+            // Originals and lower-cased keys, object headers, plus one posting per gram
+            return 160L + 4L * chars + 48L * gramCount;
+        }
+    }
+
+    private static final class SamajIndex {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<Long, Member> members = new HashMap<>();
+        private final Map<String, Set<Long>> postings = new HashMap<>();
+        private volatile boolean built;
+        private volatile long estimatedBytes = INDEX_OVERHEAD_BYTES;
+        private volatile long lastAccess = System.nanoTime();
+
+        /**
+         * Load the index on first use; returns true if this call built it
+         */
+        boolean ensureBuilt(Supplier<List<Member>> loader) {
+            if (built) {
+                return false;
+            }
+            // Changes that arrive while loading wait for the lock and are applied on top of the snapshot
+            lock.writeLock().lock();
+            try {
+                if (built) {
+                    return false;
+                }
+                for (Member member : loader.get()) {
+                    put(member);
+                }
+                built = true;
+                return true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        boolean isEmpty() {
+            lock.readLock().lock();
+            try {
+                return members.isEmpty();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void upsert(Member member) {
+            lock.writeLock().lock();
+            try {
+                put(member);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        List<Member> search(String query, Long excludeUserId, int limit) {
+            lock.readLock().lock();
+            try {
+                Collection<Long> candidates;
+                if (query.length() >= GRAM_LENGTH) {
+                    // Every match contains every gram of the query, so the shortest posting list is a complete candidate set
+                    Set<Long> shortest = null;
+                    for (String gram : grams(query)) {
+                        Set<Long> posting = postings.get(gram);
+                        if (posting == null) {
+                            return new ArrayList<>();
+                        }
+                        if (shortest == null || posting.size() < shortest.size()) {
+                            shortest = posting;
+                        }
+                    }
+                    candidates = shortest;
+                } else {
+                    candidates = members.keySet();
+                }
+
+                List<Member> matches = new ArrayList<>();
+                for (Long userId : candidates) {
+                    Member member = members.get(userId);
+                    if (member != null && !userId.equals(excludeUserId) && member.matches(query)) {
+                        matches.add(member);
+                    }
+                }
+                matches.sort(Comparator.<Member>comparingInt(member -> member.rank(query))
+                        .thenComparing(member -> member.nameKey)
+                        .thenComparing(member -> member.userId));
+                return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private void put(Member member) {
+            Member previous = members.put(member.userId, member);
+            long bytes = estimatedBytes;
+            if (previous != null) {
+                Set<String> previousGrams = previous.grams();
+                for (String gram : previousGrams) {
+                    Set<Long> posting = postings.get(gram);
+                    if (posting != null) {
+                        posting.remove(previous.userId);
+                        if (posting.isEmpty()) {
+                            postings.remove(gram);
+                        }
+                    }
+                }
+                bytes -= previous.estimatedBytes(previousGrams.size());
+            }
+            Set<String> grams = member.grams();
+            for (String gram : grams) {
+                postings.computeIfAbsent(gram, key -> new HashSet<>()).add(member.userId);
+            }
+            estimatedBytes = bytes + member.estimatedBytes(grams.size());
+        }
+    }
+}
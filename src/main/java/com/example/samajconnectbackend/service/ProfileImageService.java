@@ -0,0 +1,98 @@
+package com.example.samajconnectbackend.service;
+
+import com.example.samajconnectbackend.dto.ImageResource;
+import com.example.samajconnectbackend.entity.ImageOwnerType;
+import com.example.samajconnectbackend.entity.ImageVariant;
+import com.example.samajconnectbackend.entity.User;
+import com.example.samajconnectbackend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.Optional;
+
+@Service
+public class ProfileImageService {
+
+    private static final String AVATAR_PATH = "/api/users/%d/avatar?size=%s&v=%d";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ImageProcessingService imageProcessingService;
+
+    @Autowired
+    private ImageStorageService imageStorageService;
+
+    /**
+     * Build the avatar URL for a user at the given size, or null if the user has no profile image.
+     * The version parameter changes whenever the image changes, so clients can cache the URL.
+     */
+    public String avatarUrl(User user, ImageVariant variant) {
+        if (user == null || !hasProfileImage(user)) {
+            return null;
+        }
+        return String.format(AVATAR_PATH, user.getId(), variant.getValue(), imageVersion(user));
+    }
+
+    /**
+     * Same as {@link #avatarUrl(User, ImageVariant)} for callers that only hold the user's id and image version
+     */
+    public String avatarUrl(Long userId, Long profileImageVersion, ImageVariant variant) {
+        if (userId == null || profileImageVersion == null) {
+            return null;
+        }
+        return String.format(AVATAR_PATH, userId, variant.getValue(), profileImageVersion);
+    }
+
+    public boolean hasProfileImage(User user) {
+        return user.getProfileImageVersion() != null;
+    }
+
+    /**
+     * Validate an uploaded image; throws IllegalArgumentException for anything we can't serve
+     */
+    public Map<ImageVariant, ImageProcessingService.ProcessedImage> prepareImage(byte[] source) {
+        return imageProcessingService.process(source);
+    }
+
+    /**
+     * Store prepared renditions as the user's profile image; the caller saves the user afterwards
+     */
+    public void storeImage(User user, Map<ImageVariant, ImageProcessingService.ProcessedImage> renditions) {
+        imageStorageService.replaceRenditions(ImageOwnerType.USER, user.getId(), renditions);
+        user.setProfileImageVersion(ImageStorageService.nextVersion(user.getProfileImageVersion()));
+    }
+
+    /**
+     * Remove the user's profile image; the caller saves the user afterwards
+     */
+    public void removeProfileImage(User user) {
+        imageStorageService.deleteRenditions(ImageOwnerType.USER, user.getId());
+        user.setProfileImageVersion(null);
+    }
+
+    /**
+     * Load one rendition of a user's profile image together with its ETag/Last-Modified validators
+     */
+    @Transactional(readOnly = true)
+    public Optional<ImageResource> loadAvatar(Long userId, ImageVariant variant) {
+        Optional<Long> version = userRepository.findProfileImageVersionById(userId);
+        if (version.isEmpty()) {
+            return Optional.empty();
+        }
+
+        String eTag = userId + "-" + variant.getValue() + "-" + version.get();
+        return imageStorageService.findRendition(ImageOwnerType.USER, userId, variant)
+                .map(rendition -> new ImageResource(rendition.getData(), rendition.getContentType(), eTag, version.get()));
+    }
+
+    /**
+     * Version of the user's image, i.e. the epoch millis (whole seconds) of the last upload
+     */
+    public long imageVersion(User user) {
+        return user.getProfileImageVersion() != null ? user.getProfileImageVersion() : 0L;
+    }
+}
@@ -0,0 +1,397 @@
+package com.example.samajconnectbackend.service;
+
+import com.example.samajconnectbackend.entity.ReactionType;
+import com.example.samajconnectbackend.repository.EventReactionRepository;
+import com.example.samajconnectbackend.repository.EventRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * In-memory like/dislike counters per event.
+ * <p>
+ * Totals are loaded from event_reactions the first time an event is touched and then kept current
+ * by {@link #recordChange}, so reaction stats are served without counting rows. Committed changes
+ * are also collected as deltas and written to events.like_count / dislike_count in batches.
+ * <p>
+ * Only events that exist are kept in memory. Totals nobody has asked for in a while are dropped and
+ * reloaded on next use, and the number of events held is capped.
+ */
+@Service
+public class ReactionCounterAggregator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactionCounterAggregator.class);
+
+    private static final String FLUSH_SQL = "UPDATE events " +
+            "SET like_count = GREATEST(COALESCE(like_count, 0) + ?, 0), " +
+            "dislike_count = GREATEST(COALESCE(dislike_count, 0) + ?, 0) " +
+            "WHERE id = ?";
+
+    @Autowired
+    private EventReactionRepository eventReactionRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.reactions.totals.idle-ms:1800000}")
+    private long totalsIdleMillis;
+
+    @Value("${app.reactions.totals.max-events:50000}")
+    private int maxCachedEvents;
+
+    private final ConcurrentHashMap<Long, Counter> totals = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Counter> pendingDeltas = new ConcurrentHashMap<>();
+
+    /**
+     * Like/dislike counts of one event, held as LongAdders so concurrent reactions don't contend
+     */
+    static final class Counter {
+        final LongAdder likes = new LongAdder();
+        final LongAdder dislikes = new LongAdder();
+        // Transactions that may still change these totals; a pinned counter is never dropped
+        final AtomicInteger pins = new AtomicInteger();
+        volatile long lastUsedMillis = System.currentTimeMillis();
+        // Zero totals handed out for an event that doesn't exist, never stored in the map
+        final boolean detached;
+
+        Counter() {
+            this(false);
+        }
+
+        Counter(boolean detached) {
+            this.detached = detached;
+        }
+
+        void add(ReactionType type, long delta) {
+            if (type == ReactionType.LIKE) {
+                likes.add(delta);
+            } else if (type == ReactionType.DISLIKE) {
+                dislikes.add(delta);
+            }
+        }
+
+        void apply(ReactionType oldType, ReactionType newType, long sign) {
+            add(oldType, -sign);
+            add(newType, sign);
+        }
+    }
+
+    /**
+     * Record that a user's reaction to an event changed from oldType to newType (either may be null).
+     * Call this before writing the reaction row, or after it once {@link #ensureLoaded} has run: the
+     * first touch of an event loads its totals from event_reactions, which must not already contain
+     * the change. A rollback undoes the change, and only committed changes are queued for the events table.
+     */
+    public void recordChange(Long eventId, ReactionType oldType, ReactionType newType) {
+        if (oldType == newType) {
+            return;
+        }
+
+        Counter counter = pinnedTotalsFor(eventId);
+        counter.apply(oldType, newType, 1);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        queueDelta(eventId, oldType, newType);
+                    } else {
+                        counter.apply(oldType, newType, -1);
+                    }
+                }
+            });
+        } else {
+            queueDelta(eventId, oldType, newType);
+        }
+    }
+
+    /**
+     * Load an event's totals if they aren't in memory yet, for writers that only know the change
+     * after writing the reaction row. The totals stay in memory until the current transaction ends.
+     */
+    public void ensureLoaded(Long eventId) {
+        pinnedTotalsFor(eventId);
+    }
+
+    /**
+     * Drop a deleted event's totals and unflushed changes once the current transaction commits
+     */
+    public void forgetAfterCommit(Long eventId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    forget(eventId);
+                }
+            });
+        } else {
+            forget(eventId);
+        }
+    }
+
+    private void forget(Long eventId) {
+        totals.remove(eventId);
+        pendingDeltas.remove(eventId);
+    }
+
+    public long getLikeCount(Long eventId) {
+        return Math.max(0, totalsFor(eventId).likes.sum());
+    }
+
+    public long getDislikeCount(Long eventId) {
+        return Math.max(0, totalsFor(eventId).dislikes.sum());
+    }
+
+    /**
+     * Totals for several events as {likes, dislikes}. Events not yet in memory are loaded together
+     * with one grouped query instead of one query each.
+     */
+    public Map<Long, long[]> getCounts(Collection<Long> eventIds) {
+        Map<Long, Counter> counters = new HashMap<>();
+        Set<Long> missing = new HashSet<>();
+        for (Long eventId : eventIds) {
+            Counter counter = totals.get(eventId);
+            if (counter != null) {
+                counter.lastUsedMillis = System.currentTimeMillis();
+                counters.put(eventId, counter);
+            } else {
+                missing.add(eventId);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            Map<Long, Counter> loaded = new HashMap<>();
+            for (Long eventId : eventRepository.findExistingIds(missing)) {
+                loaded.put(eventId, new Counter());
+            }
+            if (!loaded.isEmpty()) {
+                for (Object[] row : eventReactionRepository.countByEventIdsGroupByEventIdAndReactionType(loaded.keySet())) {
+                    loaded.get((Long) row[0]).add((ReactionType) row[1], (Long) row[2]);
+                }
+            }
+            // An event loaded concurrently by recordChange keeps that counter
+            loaded.forEach((eventId, counter) -> {
+                Counter existing = totals.putIfAbsent(eventId, counter);
+                counters.put(eventId, existing != null ? existing : counter);
+            });
+        }
+
+        // Ids of events that don't exist count as zero and aren't cached
+        Map<Long, long[]> counts = new LinkedHashMap<>();
+        for (Long eventId : eventIds) {
+            Counter counter = counters.get(eventId);
+            counts.put(eventId, counter == null ? new long[]{0, 0}
+                    : new long[]{Math.max(0, counter.likes.sum()), Math.max(0, counter.dislikes.sum())});
+        }
+        return counts;
+    }
+
+    /**
+     * Counts of an event as {likes, dislikes} given the values stored in the events table: the in-memory
+     * totals when the event is loaded, otherwise the stored values plus committed changes not yet flushed.
+     * Never queries, so it suits lists that already read the stored counts.
+     */
+    public long[] getCounts(Long eventId, long storedLikes, long storedDislikes) {
+        Counter counter = totals.get(eventId);
+        if (counter != null) {
+            return new long[]{Math.max(0, counter.likes.sum()), Math.max(0, counter.dislikes.sum())};
+        }
+        long[] pending = getPendingDelta(eventId);
+        return new long[]{Math.max(0, storedLikes + pending[0]), Math.max(0, storedDislikes + pending[1])};
+    }
+
+    /**
+     * Committed changes not yet written to the events table, as {likes, dislikes}
+     */
+    public long[] getPendingDelta(Long eventId) {
+        Counter delta = pendingDeltas.get(eventId);
+        if (delta == null) {
+            return new long[]{0, 0};
+        }
+        return new long[]{delta.likes.sum(), delta.dislikes.sum()};
+    }
+
+    /**
+     * Write queued deltas to events.like_count / dislike_count in one batched UPDATE
+     */
+    @Scheduled(fixedDelayString = "${app.reactions.flush-interval-ms:5000}")
+    public void flush() {
+        List<Object[]> batch = new ArrayList<>();
+        for (Map.Entry<Long, Counter> entry : pendingDeltas.entrySet()) {
+            // sumThenReset takes what has arrived so far; anything added concurrently waits for the next flush
+            long likes = entry.getValue().likes.sumThenReset();
+            long dislikes = entry.getValue().dislikes.sumThenReset();
+            if (likes != 0 || dislikes != 0) {
+                batch.add(new Object[]{likes, dislikes, entry.getKey()});
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(FLUSH_SQL, batch));
+                logger.debug("Flushed reaction counts for {} event(s)", batch.size());
+            } catch (RuntimeException e) {
+                // Put the deltas back so the next flush retries them
+                for (Object[] row : batch) {
+                    pendingDeltas.compute((Long) row[2], (id, delta) -> {
+                        Counter counter = delta != null ? delta : new Counter();
+                        counter.likes.add((Long) row[0]);
+                        counter.dislikes.add((Long) row[1]);
+                        return counter;
+                    });
+                }
+                logger.warn("Failed to flush reaction counts, will retry: {}", e.getMessage());
+                return;
+            }
+        }
+
+        // Drop events with nothing left to write; queueDelta adds under the same lock, so no change is lost
+        for (Long eventId : pendingDeltas.keySet()) {
+            pendingDeltas.computeIfPresent(eventId,
+                    (id, delta) -> delta.likes.sum() == 0 && delta.dislikes.sum() == 0 ? null : delta);
+        }
+    }
+
+    /**
+     * Drop totals that haven't been used for a while, then the least recently used ones beyond the cap.
+     * Totals a transaction is still changing are kept.
+     */
+    @Scheduled(fixedDelayString = "${app.reactions.totals.sweep-interval-ms:60000}")
+    public void evictIdleTotals() {
+        long idleBefore = System.currentTimeMillis() - totalsIdleMillis;
+        for (Long eventId : totals.keySet()) {
+            evictIf(eventId, counter -> counter.lastUsedMillis < idleBefore);
+        }
+
+        int excess = totals.size() - maxCachedEvents;
+        if (excess > 0) {
+            totals.entrySet().stream()
+                    .sorted(Comparator.comparingLong(entry -> entry.getValue().lastUsedMillis))
+                    .limit(excess)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(eventId -> evictIf(eventId, counter -> true));
+        }
+    }
+
+    private void evictIf(Long eventId, Predicate<Counter> condition) {
+        totals.computeIfPresent(eventId,
+                (id, counter) -> counter.pins.get() == 0 && condition.test(counter) ? null : counter);
+    }
+
+    /**
+     * Bring events.like_count / dislike_count in line with event_reactions on startup
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcile() {
+        try {
+            Integer corrected = transactionTemplate.execute(status -> eventRepository.reconcileReactionCounts());
+            if (corrected != null && corrected > 0) {
+                logger.info("Reconciled reaction counts of {} event(s)", corrected);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Failed to reconcile reaction counts: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Totals of an event, loaded on first use. The query runs outside the map so it holds no lock on
+     * other events; totals of an event that doesn't exist are all zero and aren't cached.
+     */
+    private Counter totalsFor(Long eventId) {
+        Counter counter = totals.get(eventId);
+        if (counter == null) {
+            Counter loaded = loadTotals(eventId);
+            if (loaded == null) {
+                return new Counter(true);
+            }
+            counter = totals.putIfAbsent(eventId, loaded);
+            if (counter == null) {
+                counter = loaded;
+            }
+        }
+        counter.lastUsedMillis = System.currentTimeMillis();
+        return counter;
+    }
+
+    /**
+     * Totals of an event, kept in memory until the current transaction ends so that a change made in it is
+     * never lost to an eviction and a reload that doesn't see the change yet
+     */
+    private Counter pinnedTotalsFor(Long eventId) {
+        while (true) {
+            Counter counter = totalsFor(eventId);
+            if (counter.detached || !TransactionSynchronizationManager.isSynchronizationActive()) {
+                return counter;
+            }
+            counter.pins.incrementAndGet();
+            // Evicted between the lookup and the pin: load it again
+            if (totals.get(eventId) != counter) {
+                counter.pins.decrementAndGet();
+                continue;
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    counter.pins.decrementAndGet();
+                }
+            });
+            return counter;
+        }
+    }
+
+    private Counter loadTotals(Long eventId) {
+        if (!eventRepository.existsById(eventId)) {
+            return null;
+        }
+        Counter counter = new Counter();
+        for (Object[] row : eventReactionRepository.countByEventIdGroupByReactionType(eventId)) {
+            counter.add((ReactionType) row[0], (Long) row[1]);
+        }
+        return counter;
+    }
+
+    private void queueDelta(Long eventId, ReactionType oldType, ReactionType newType) {
+        pendingDeltas.compute(eventId, (id, delta) -> {
+            Counter counter = delta != null ? delta : new Counter();
+            counter.apply(oldType, newType, 1);
+            return counter;
+        });
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.samajconnectbackend.service;
+
+import com.example.samajconnectbackend.entity.RelationshipSide;
+import com.example.samajconnectbackend.entity.RelationshipType;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.LongFunction;
+
+import static com.example.samajconnectbackend.entity.RelationshipType.*;
+
+/**
+ * Derives the relatives implied by approved relationships. If B is A's {@code FATHER} and C is B's
+ * {@code BROTHER}, then C is A's {@code PATERNAL_UNCLE}: the composition table maps such a pair of
+ * relationship types to the implied type, and inference applies it along chains of up to {@link #MAX_HOPS}
+ * edges. The second type of every pair is a direct one (parent, child, spouse or sibling); the first may be
+ * a derived type, which is how cousins and great-grandparents come out of three hops.
+ * <p>
+ * Pairs without a single answer (a father's wife may be a mother or a stepmother) are left out of the table.
+ */
+final class RelationshipInference {
+
+    static final int MAX_HOPS = 3;
+
+    private static final RelationshipType[] TYPES = RelationshipType.values();
+    private static final RelationshipType[][] COMPOSITION = new RelationshipType[TYPES.length][TYPES.length];
+
+    static {
+        for (RelationshipType parent : List.of(FATHER, MOTHER)) {
+            compose(parent, SON, BROTHER);
+            compose(parent, DAUGHTER, SISTER);
+        }
+        compose(FATHER, FATHER, PATERNAL_GRANDFATHER);
+        compose(FATHER, MOTHER, PATERNAL_GRANDMOTHER);
+        compose(FATHER, BROTHER, PATERNAL_UNCLE);
+        compose(FATHER, SISTER, PATERNAL_AUNT);
+        compose(MOTHER, FATHER, MATERNAL_GRANDFATHER);
+        compose(MOTHER, MOTHER, MATERNAL_GRANDMOTHER);
+        compose(MOTHER, BROTHER, MATERNAL_UNCLE);
+        compose(MOTHER, SISTER, MATERNAL_AUNT);
+
+        for (RelationshipType child : List.of(SON, DAUGHTER)) {
+            compose(child, SON, GRANDSON);
+            compose(child, DAUGHTER, GRANDDAUGHTER);
+        }
+        compose(SON, WIFE, DAUGHTER_IN_LAW);
+        compose(DAUGHTER, HUSBAND, SON_IN_LAW);
+
+        for (RelationshipType spouse : List.of(HUSBAND, WIFE)) {
+            compose(spouse, FATHER, FATHER_IN_LAW);
+            compose(spouse, MOTHER, MOTHER_IN_LAW);
+            compose(spouse, BROTHER, BROTHER_IN_LAW);
+            compose(spouse, SISTER, SISTER_IN_LAW);
+        }
+
+        for (RelationshipType sibling : List.of(BROTHER, SISTER)) {
+            compose(sibling, BROTHER, BROTHER);
+            compose(sibling, SISTER, SISTER);
+            compose(sibling, SON, NEPHEW);
+            compose(sibling, DAUGHTER, NIECE);
+        }
+        compose(BROTHER, WIFE, SISTER_IN_LAW);
+        compose(SISTER, HUSBAND, BROTHER_IN_LAW);
+
+        // Third hop: a grandparent's parent, a grandchild's child, an uncle's or aunt's child
+        for (RelationshipType grandparent : List.of(PATERNAL_GRANDFATHER, PATERNAL_GRANDMOTHER,
+                MATERNAL_GRANDFATHER, MATERNAL_GRANDMOTHER)) {
+            compose(grandparent, FATHER, GREAT_GRANDFATHER);
+            compose(grandparent, MOTHER, GREAT_GRANDMOTHER);
+        }
+        for (RelationshipType grandchild : List.of(GRANDSON, GRANDDAUGHTER)) {
+            compose(grandchild, SON, GREAT_GRANDSON);
+            compose(grandchild, DAUGHTER, GREAT_GRANDDAUGHTER);
+        }
+        for (RelationshipType uncleOrAunt : List.of(PATERNAL_UNCLE, PATERNAL_AUNT)) {
+            compose(uncleOrAunt, SON, PATERNAL_COUSIN_BROTHER);
+            compose(uncleOrAunt, DAUGHTER, PATERNAL_COUSIN_SISTER);
+        }
+        for (RelationshipType uncleOrAunt : List.of(MATERNAL_UNCLE, MATERNAL_AUNT)) {
+            compose(uncleOrAunt, SON, MATERNAL_COUSIN_BROTHER);
+            compose(uncleOrAunt, DAUGHTER, MATERNAL_COUSIN_SISTER);
+        }
+    }
+
+    private RelationshipInference() {
+    }
+
+    private static void compose(RelationshipType first, RelationshipType second, RelationshipType implied) {
+        COMPOSITION[first.ordinal()][second.ordinal()] = implied;
+    }
+
+    /**
+     * The type implied by following a relationship of type first and then one of type second, or null
+     */
+    static RelationshipType compose(RelationshipType first, RelationshipType second) {
+        return COMPOSITION[first.ordinal()][second.ordinal()];
+    }
+
+    /**
+     * Relatives implied by a user's relationships, ordered by hop count. Users the user already has a
+     * relationship with are left out, and each (relative, type) pair is reported once, through the
+     * nearest intermediate relative.
+     *
+     * @param graphOf graph holding a given user's outgoing relationships
+     */
+    static List<Inferred> inferFor(long userId, LongFunction<KinshipGraph> graphOf) {
+        KinshipGraph ownGraph = graphOf.apply(userId);
+        List<Inferred> inferred = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+
+        // Chains that can still be extended: the user at the end and the relationship the chain implies
+        List<Inferred> frontier = new ArrayList<>();
+        for (KinshipGraph.Edge edge : ownGraph.edgesFrom(userId)) {
+            frontier.add(new Inferred(edge.getRelatedUserId(), edge.getRelationshipType(), userId));
+        }
+
+        for (int hop = 2; hop <= MAX_HOPS && !frontier.isEmpty(); hop++) {
+            List<Inferred> next = new ArrayList<>();
+            for (Inferred chain : frontier) {
+                for (KinshipGraph.Edge edge : graphOf.apply(chain.relatedUserId).edgesFrom(chain.relatedUserId)) {
+                    RelationshipType implied = compose(chain.relationshipType, edge.getRelationshipType());
+                    long relativeId = edge.getRelatedUserId();
+                    if (implied == null || relativeId == userId
+                            || ownGraph.relationshipBetween(userId, relativeId) != null
+                            || !seen.add(relativeId * TYPES.length + implied.ordinal())) {
+                        continue;
+                    }
+                    Inferred relative = new Inferred(relativeId, implied, chain.relatedUserId);
+                    inferred.add(relative);
+                    next.add(relative);
+                }
+            }
+            frontier = next;
+        }
+        return inferred;
+    }
+
+    /**
+     * A relative implied by a chain of relationships, with the last user on the chain before them
+     */
+    static final class Inferred {
+        private final long relatedUserId;
+        private final RelationshipType relationshipType;
+        private final long viaUserId;
+
+        Inferred(long relatedUserId, RelationshipType relationshipType, long viaUserId) {
+            this.relatedUserId = relatedUserId;
+            this.relationshipType = relationshipType;
+            this.viaUserId = viaUserId;
+        }
+
+        long getRelatedUserId() { return relatedUserId; }
+        RelationshipType getRelationshipType() { return relationshipType; }
+        long getViaUserId() { return viaUserId; }
+        RelationshipSide getRelationshipSide() { return relationshipType.getDefaultRelationshipSide(); }
+        int getGenerationLevel() { return relationshipType.getDefaultGenerationLevel(); }
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.samajconnectbackend.service;
+
+import com.example.samajconnectbackend.entity.InferredRelationship;
+import com.example.samajconnectbackend.event.KinshipChangedEvent;
+import com.example.samajconnectbackend.repository.InferredRelationshipRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps inferred_relationships, the relatives implied by approved relationships, up to date. After a
+ * relationship change commits, the users whose inferences could depend on it are recomputed from the kinship
+ * graph on a background thread, so approving a request never waits for inference. Readers may briefly see
+ * the inferences from before the change.
+ */
+@Service
+public class RelationshipInferenceService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RelationshipInferenceService.class);
+
+    @Autowired
+    private KinshipGraphService kinshipGraphService;
+
+    @Autowired
+    private InferredRelationshipRepository inferredRelationshipRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.kinship.inference.batch-size:200}")
+    private int batchSize;
+
+    // Users on either end of a changed relationship; their neighbourhoods are expanded by the worker
+    private final Set<Long> changedUsers = ConcurrentHashMap.newKeySet();
+    // Users whose inferred relationships have to be recomputed
+    private final Set<Long> staleUsers = ConcurrentHashMap.newKeySet();
+    // Refreshes waiting for their users to be recomputed
+    private final List<Waiter> waiters = new CopyOnWriteArrayList<>();
+
+    private static final class Waiter {
+        final Set<Long> remaining; // only touched by the worker once the waiter is published
+        final Runnable whenDone;
+
+        Waiter(Collection<Long> userIds, Runnable whenDone) {
+            this.remaining = new HashSet<>(userIds);
+            this.whenDone = whenDone;
+        }
+    }
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void start() {
+        // One worker, so a user's rows are never rewritten concurrently. A wake-up that finds a drain
+        // already queued is dropped: that drain will see its users.
+        executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "kinship-inference");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onKinshipChanged(KinshipChangedEvent event) {
+        for (KinshipGraph.Edge edge : event.getUpserted()) {
+            changedUsers.add(edge.getUserId());
+            changedUsers.add(edge.getRelatedUserId());
+        }
+        if (event.getRemovedUserId() != null) {
+            changedUsers.add(event.getRemovedUserId());
+            changedUsers.add(event.getRemovedRelatedUserId());
+        }
+        wakeUp();
+    }
+
+    /**
+     * Recompute the inferred relationships of the given users in the background
+     */
+    public void refresh(Collection<Long> userIds) {
+        staleUsers.addAll(userIds);
+        wakeUp();
+    }
+
+    /**
+     * Recompute the inferred relationships of the given users in the background, then run whenDone on the
+     * worker. Failed batches are retried, so whenDone runs once every user has been recomputed.
+     */
+    public void refresh(Collection<Long> userIds, Runnable whenDone) {
+        if (userIds.isEmpty()) {
+            whenDone.run();
+            return;
+        }
+        waiters.add(new Waiter(userIds, whenDone));
+        refresh(userIds);
+    }
+
+    /**
+     * Retry users whose recomputation failed
+     */
+    @Scheduled(fixedDelayString = "${app.kinship.inference.retry-interval-ms:60000}")
+    public void retryPending() {
+        if (!changedUsers.isEmpty() || !staleUsers.isEmpty()) {
+            wakeUp();
+        }
+    }
+
+    private void wakeUp() {
+        executor.execute(this::drain);
+    }
+
+    private void drain() {
+        List<Long> changed = takeUpTo(changedUsers, Integer.MAX_VALUE);
+        try {
+            staleUsers.addAll(affectedBy(changed));
+        } catch (RuntimeException e) {
+            changedUsers.addAll(changed);
+            logger.error("Could not find the users affected by a relationship change: {}", e.getMessage(), e);
+            return;
+        }
+
+        while (true) {
+            List<Long> batch = takeUpTo(staleUsers, batchSize);
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                recompute(batch);
+            } catch (RuntimeException e) {
+                staleUsers.addAll(batch);
+                logger.error("Could not recompute inferred relationships of {} users: {}", batch.size(),
+                        e.getMessage(), e);
+                return;
+            }
+            notifyWaiters(batch);
+        }
+    }
+
+    private void notifyWaiters(List<Long> recomputed) {
+        for (Waiter waiter : waiters) {
+            waiter.remaining.removeAll(recomputed);
+            if (waiter.remaining.isEmpty() && waiters.remove(waiter)) {
+                try {
+                    waiter.whenDone.run();
+                } catch (RuntimeException e) {
+                    logger.error("Callback after inferring relationships failed: {}", e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Users whose inferences may go through one of the given users: those within MAX_HOPS - 1 relationships
+     * of them. Relationships are recorded in both directions, so the users who reach a user are the users
+     * it reaches.
+     */
+    private Set<Long> affectedBy(Collection<Long> changed) {
+        Set<Long> affected = new HashSet<>(changed);
+        List<Long> frontier = new ArrayList<>(changed);
+        for (int hop = 1; hop < RelationshipInference.MAX_HOPS && !frontier.isEmpty(); hop++) {
+            List<Long> next = new ArrayList<>();
+            for (Long userId : frontier) {
+                for (long relatedUserId : kinshipGraphService.graphOfUser(userId).relatedUserIds(userId)) {
+                    if (affected.add(relatedUserId)) {
+                        next.add(relatedUserId);
+                    }
+                }
+            }
+            frontier = next;
+        }
+        return affected;
+    }
+
+    private void recompute(List<Long> userIds) {
+        List<InferredRelationship> rows = new ArrayList<>();
+        for (Long userId : userIds) {
+            for (RelationshipInference.Inferred inferred
+                    : RelationshipInference.inferFor(userId, kinshipGraphService::graphOfUser)) {
+                InferredRelationship row = new InferredRelationship();
+                row.setUserId(userId);
+                row.setRelatedUserId(inferred.getRelatedUserId());
+                row.setRelationshipType(inferred.getRelationshipType());
+                row.setRelationshipSide(inferred.getRelationshipSide());
+                row.setGenerationLevel(inferred.getGenerationLevel());
+                row.setViaUserId(inferred.getViaUserId());
+                rows.add(row);
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            inferredRelationshipRepository.deleteByUserIdIn(userIds);
+            inferredRelationshipRepository.saveAll(rows);
+        });
+        logger.debug("Recomputed inferred relationships of {} users: {} rows", userIds.size(), rows.size());
+    }
+
+    private static List<Long> takeUpTo(Set<Long> pending, int limit) {
+        List<Long> taken = new ArrayList<>();
+        Iterator<Long> iterator = pending.iterator();
+        while (taken.size() < limit && iterator.hasNext()) {
+            taken.add(iterator.next());
+            iterator.remove();
+        }
+        return taken;
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+}
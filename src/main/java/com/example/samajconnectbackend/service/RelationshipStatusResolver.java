@@ -0,0 +1,69 @@
+package com.example.samajconnectbackend.service;
+
+import com.example.samajconnectbackend.dto.SamajMemberDto;
+import com.example.samajconnectbackend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolves the relationship status between the current user and a whole page of members
+ * with two set-based queries, instead of up to three lookups per member.
+ */
+@Service
+public class RelationshipStatusResolver {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    /**
+     * Status for every given user; precedence is related, then request sent, then request received
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, SamajMemberDto.RelationshipStatus> resolve(Long currentUserId, Collection<Long> userIds) {
+        Map<Long, SamajMemberDto.RelationshipStatus> statuses = new HashMap<>();
+        if (userIds == null || userIds.isEmpty()) {
+            return statuses;
+        }
+
+        Set<Long> ids = new HashSet<>(userIds);
+        Set<Long> related = new HashSet<>(userRepository.findRelatedUserIdsAmong(currentUserId, ids));
+
+        Set<Long> sentTo = new HashSet<>();
+        Set<Long> receivedFrom = new HashSet<>();
+        List<Object[]> pending = userRepository.findPendingRequestPairsAmong(currentUserId, ids);
+        for (Object[] pair : pending) {
+            Long requesterId = (Long) pair[0];
+            Long targetId = (Long) pair[1];
+            if (currentUserId.equals(requesterId)) {
+                sentTo.add(targetId);
+            } else {
+                receivedFrom.add(requesterId);
+            }
+        }
+
+        for (Long userId : ids) {
+            SamajMemberDto.RelationshipStatus status;
+            if (userId.equals(currentUserId)) {
+                status = SamajMemberDto.RelationshipStatus.SAME_USER;
+            } else if (related.contains(userId)) {
+                status = SamajMemberDto.RelationshipStatus.ALREADY_RELATED;
+            } else if (sentTo.contains(userId)) {
+                status = SamajMemberDto.RelationshipStatus.REQUEST_SENT;
+            } else if (receivedFrom.contains(userId)) {
+                status = SamajMemberDto.RelationshipStatus.REQUEST_RECEIVED;
+            } else {
+                status = SamajMemberDto.RelationshipStatus.AVAILABLE;
+            }
+            statuses.put(userId, status);
+        }
+        return statuses;
+    }
+}
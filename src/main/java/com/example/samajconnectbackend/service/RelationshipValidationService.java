@@ -21,6 +21,7 @@ public class RelationshipValidationService {
 
     private final UserRelationshipRepository relationshipRepository;
     private final UserRepository userRepository;
+    private final KinshipGraphService kinshipGraphService;
 
     public RelationshipValidationResponse validateRelationship(Long userId, Long relatedUserId, RelationshipType relationshipType) {
         RelationshipValidationResponse response = new RelationshipValidationResponse();
@@ -54,6 +55,9 @@ public class RelationshipValidationService {
                 return response;
             }
 
+            // The checks below read the kinship graph; make sure it has any changes made elsewhere
+            kinshipGraphService.reloadIfChanged(userId, relatedUserId);
+
             // Check for existing relationships
             List<UserRelationship> existingRelationships = relationshipRepository
                     .findExistingRelationship(userId, relatedUserId);
@@ -106,8 +110,8 @@ public class RelationshipValidationService {
     private void validateRelationshipLogic(Long userId, Long relatedUserId, RelationshipType relationshipType,
                                            List<String> errors, List<String> warnings) {
 
-        List<UserRelationship> userRelationships = relationshipRepository.findByUserIdAndIsActiveTrue(userId);
-        List<UserRelationship> relatedUserRelationships = relationshipRepository.findByUserIdAndIsActiveTrue(relatedUserId);
+        List<UserRelationship> userRelationships = kinshipGraphService.activeRelationshipsOf(userId);
+        List<UserRelationship> relatedUserRelationships = kinshipGraphService.activeRelationshipsOf(relatedUserId);
 
         switch (relationshipType) {
             case FATHER, MOTHER -> validateParentLogic(userId, relatedUserId, relationshipType, userRelationships, errors, warnings);
@@ -270,8 +274,8 @@ public class RelationshipValidationService {
     private boolean hasGenerationalConflict(Long userId, Long relatedUserId, RelationshipType relationshipType) {
         try {
             // Get existing relationships to check generation levels
-            List<UserRelationship> userRelationships = relationshipRepository.findByUserIdAndIsActiveTrue(userId);
-            List<UserRelationship> relatedUserRelationships = relationshipRepository.findByUserIdAndIsActiveTrue(relatedUserId);
+            List<UserRelationship> userRelationships = kinshipGraphService.activeRelationshipsOf(userId);
+            List<UserRelationship> relatedUserRelationships = kinshipGraphService.activeRelationshipsOf(relatedUserId);
 
             int newGenerationLevel = relationshipType.getDefaultGenerationLevel();
 
@@ -317,7 +321,7 @@ public class RelationshipValidationService {
         }
 
         // Check if the related user is already a parent of the user
-        List<UserRelationship> relatedUserRelationships = relationshipRepository.findByUserIdAndIsActiveTrue(relatedUserId);
+        List<UserRelationship> relatedUserRelationships = kinshipGraphService.activeRelationshipsOf(relatedUserId);
 
         return relatedUserRelationships.stream()
                 .anyMatch(rel -> rel.getRelatedUserId().equals(userId) && isParentRelationship(rel.getRelationshipType()));
@@ -337,12 +341,12 @@ public class RelationshipValidationService {
         }
 
         // Check if either user already has a spouse
-        List<UserRelationship> userSpouseRels = relationshipRepository.findByUserIdAndIsActiveTrue(userId).stream()
+        List<UserRelationship> userSpouseRels = kinshipGraphService.activeRelationshipsOf(userId).stream()
                 .filter(rel -> rel.getRelationshipType() == RelationshipType.HUSBAND ||
                         rel.getRelationshipType() == RelationshipType.WIFE)
                 .collect(Collectors.toList());
 
-        List<UserRelationship> relatedUserSpouseRels = relationshipRepository.findByUserIdAndIsActiveTrue(relatedUserId).stream()
+        List<UserRelationship> relatedUserSpouseRels = kinshipGraphService.activeRelationshipsOf(relatedUserId).stream()
                 .filter(rel -> rel.getRelationshipType() == RelationshipType.HUSBAND ||
                         rel.getRelationshipType() == RelationshipType.WIFE)
                 .collect(Collectors.toList());
@@ -362,7 +366,7 @@ public class RelationshipValidationService {
         // Check for conflicting parent-child relationships
         if (relationshipType == RelationshipType.FATHER || relationshipType == RelationshipType.MOTHER) {
             // Check if the child already has this type of parent
-            List<UserRelationship> existingParents = relationshipRepository.findByUserIdAndIsActiveTrue(relatedUserId).stream()
+            List<UserRelationship> existingParents = kinshipGraphService.activeRelationshipsOf(relatedUserId).stream()
                     .filter(rel -> rel.getRelationshipType() == relationshipType)
                     .collect(Collectors.toList());
 
@@ -373,7 +377,7 @@ public class RelationshipValidationService {
 
         if (relationshipType == RelationshipType.SON || relationshipType == RelationshipType.DAUGHTER) {
             // Check if the parent already has too many children (optional warning)
-            List<UserRelationship> existingChildren = relationshipRepository.findByUserIdAndIsActiveTrue(userId).stream()
+            List<UserRelationship> existingChildren = kinshipGraphService.activeRelationshipsOf(userId).stream()
                     .filter(rel -> rel.getRelationshipType() == RelationshipType.SON ||
                             rel.getRelationshipType() == RelationshipType.DAUGHTER)
                     .collect(Collectors.toList());
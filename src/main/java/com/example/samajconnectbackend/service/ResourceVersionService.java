@@ -0,0 +1,61 @@
+package com.example.samajconnectbackend.service;
+
+import com.example.samajconnectbackend.repository.EventRepository;
+import com.example.samajconnectbackend.repository.SamajRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * ETags for read endpoints, derived from updated_at watermarks with aggregate queries, so a
+ * conditional GET can be answered without loading or serializing any entities.
+ * Each method returns null when no tag can be computed; the request is then served normally.
+ */
+@Service
+public class ResourceVersionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResourceVersionService.class);
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private SamajRepository samajRepository;
+
+    /**
+     * Events of a samaj as seen by a viewer (null for none); covers reactions, which the list includes
+     */
+    public String eventsOfSamaj(Long samajId, Long viewerId) {
+        return eTag("events-samaj-" + samajId + "-" + viewerId,
+                () -> Optional.ofNullable(eventRepository.findEventsWatermarkBySamajId(samajId)));
+    }
+
+    public String event(Long eventId) {
+        return eTag("event-" + eventId, () -> eventRepository.findWatermarkById(eventId));
+    }
+
+    public String allSamajs() {
+        return eTag("samajs", () -> Optional.ofNullable(samajRepository.findAllWatermark()));
+    }
+
+    public String samaj(Long samajId) {
+        return eTag("samaj-" + samajId, () -> samajRepository.findWatermarkById(samajId));
+    }
+
+    private String eTag(String resource, Supplier<Optional<String>> watermark) {
+        try {
+            return watermark.get()
+                    .map(value -> DigestUtils.md5DigestAsHex((resource + "|" + value).getBytes(StandardCharsets.UTF_8)))
+                    .orElse(null);
+        } catch (RuntimeException e) {
+            logger.warn("Could not compute ETag for {}: {}", resource, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.samajconnectbackend.service;
+
+import com.example.samajconnectbackend.dto.RelationshipContext;
+import com.example.samajconnectbackend.entity.RelationshipType;
+import com.example.samajconnectbackend.entity.User;
+
+import static com.example.samajconnectbackend.entity.RelationshipType.*;
+
+/**
+ * The relationship a target user has with the requester once a request is approved: if the requester says
+ * the target is their FATHER, the target gets SON or DAUGHTER. Every answer is computed once, when the class
+ * is loaded, into an array indexed by (type, requester gender, target gender, lineage), so a lookup is a
+ * couple of multiplications and an array read, after working out only the parts of the key the type uses.
+ * <p>
+ * The rules only look at the requester's gender and the lineage today; target gender is part of the key so
+ * that a rule can use it without changing callers.
+ */
+final class ReverseRelationshipTable {
+
+    enum Gender {
+        MALE, FEMALE, UNSPECIFIED;
+
+        /**
+         * MALE for "MALE" or "M" and FEMALE for "FEMALE" or "F", in any case
+         */
+        static Gender of(String gender) {
+            if (gender == null) {
+                return UNSPECIFIED;
+            }
+            // Dispatch on length so a lookup compares at most one string
+            return switch (gender.length()) {
+                case 1 -> {
+                    char c = gender.charAt(0);
+                    yield c == 'M' || c == 'm' ? MALE : c == 'F' || c == 'f' ? FEMALE : UNSPECIFIED;
+                }
+                case 4 -> "MALE".equalsIgnoreCase(gender) ? MALE : UNSPECIFIED;
+                case 6 -> "FEMALE".equalsIgnoreCase(gender) ? FEMALE : UNSPECIFIED;
+                default -> UNSPECIFIED;
+            };
+        }
+    }
+
+    /**
+     * Which side of the family a grandchild-to-grandparent or nephew-to-uncle relationship goes through
+     */
+    enum Lineage {
+        PATERNAL, MATERNAL, UNSPECIFIED;
+
+        /**
+         * The lineage named by the context, else the side of the intermediate relative (their father's side
+         * when that relative is male, their mother's otherwise), else unspecified
+         */
+        static Lineage of(RelationshipContext context) {
+            if (context == null) {
+                return UNSPECIFIED;
+            }
+            if ("PATERNAL".equalsIgnoreCase(context.getLineage())) {
+                return PATERNAL;
+            }
+            if ("MATERNAL".equalsIgnoreCase(context.getLineage())) {
+                return MATERNAL;
+            }
+            if (context.getIntermediateRelative() != null) {
+                return Gender.of(context.getIntermediateRelative().getGender()) == Gender.MALE ? PATERNAL : MATERNAL;
+            }
+            return UNSPECIFIED;
+        }
+    }
+
+    private static final RelationshipType[] TYPES = RelationshipType.values();
+    private static final Gender[] GENDERS = Gender.values();
+    private static final Lineage[] LINEAGES = Lineage.values();
+
+    // Flattened [type][requester gender][target gender][lineage]
+    private static final RelationshipType[] TABLE = build();
+
+    // Per type, whether its answers differ by each part of the key. Parts a type ignores aren't worked out
+    // from the users and context, which saves the string comparisons behind them.
+    private static final boolean[] USES_REQUESTER_GENDER = new boolean[TYPES.length];
+    private static final boolean[] USES_TARGET_GENDER = new boolean[TYPES.length];
+    private static final boolean[] USES_LINEAGE = new boolean[TYPES.length];
+
+    static {
+        for (RelationshipType type : TYPES) {
+            for (Gender requesterGender : GENDERS) {
+                for (Gender targetGender : GENDERS) {
+                    for (Lineage lineage : LINEAGES) {
+                        RelationshipType answer = reverseOf(type, requesterGender, targetGender, lineage);
+                        int t = type.ordinal();
+                        USES_REQUESTER_GENDER[t] |= answer != reverseOf(type, GENDERS[0], targetGender, lineage);
+                        USES_TARGET_GENDER[t] |= answer != reverseOf(type, requesterGender, GENDERS[0], lineage);
+                        USES_LINEAGE[t] |= answer != reverseOf(type, requesterGender, targetGender, LINEAGES[0]);
+                    }
+                }
+            }
+        }
+    }
+
+    private ReverseRelationshipTable() {
+    }
+
+    static RelationshipType reverseOf(RelationshipType type, User requester, User target, RelationshipContext context) {
+        int t = type.ordinal();
+        return reverseOf(type,
+                USES_REQUESTER_GENDER[t] ? Gender.of(requester.getGender()) : Gender.UNSPECIFIED,
+                USES_TARGET_GENDER[t] ? Gender.of(target.getGender()) : Gender.UNSPECIFIED,
+                USES_LINEAGE[t] ? Lineage.of(context) : Lineage.UNSPECIFIED);
+    }
+
+    static RelationshipType reverseOf(RelationshipType type, Gender requesterGender, Gender targetGender,
+                                      Lineage lineage) {
+        return TABLE[index(type.ordinal(), requesterGender.ordinal(), targetGender.ordinal(), lineage.ordinal())];
+    }
+
+    private static int index(int type, int requesterGender, int targetGender, int lineage) {
+        return ((type * GENDERS.length + requesterGender) * GENDERS.length + targetGender) * LINEAGES.length + lineage;
+    }
+
+    private static RelationshipType[] build() {
+        RelationshipType[] table = new RelationshipType[TYPES.length * GENDERS.length * GENDERS.length * LINEAGES.length];
+        for (RelationshipType type : TYPES) {
+            for (Gender requesterGender : GENDERS) {
+                for (Gender targetGender : GENDERS) {
+                    for (Lineage lineage : LINEAGES) {
+                        table[index(type.ordinal(), requesterGender.ordinal(), targetGender.ordinal(), lineage.ordinal())]
+                                = rule(type, requesterGender, lineage);
+                    }
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * The reverse of a relationship type. A requester whose gender is not recorded is treated as female, and
+     * an unspecified lineage as paternal.
+     */
+    private static RelationshipType rule(RelationshipType type, Gender requesterGender, Lineage lineage) {
+        boolean male = requesterGender == Gender.MALE;
+        boolean maternal = lineage == Lineage.MATERNAL;
+        return switch (type) {
+            case FATHER, MOTHER -> male ? SON : DAUGHTER;
+            case SON, DAUGHTER -> male ? FATHER : MOTHER;
+            case HUSBAND -> WIFE;
+            case WIFE -> HUSBAND;
+            case BROTHER, SISTER -> male ? BROTHER : SISTER;
+
+            case PATERNAL_GRANDFATHER, PATERNAL_GRANDMOTHER, MATERNAL_GRANDFATHER, MATERNAL_GRANDMOTHER ->
+                    male ? GRANDSON : GRANDDAUGHTER;
+            case GRANDSON, GRANDDAUGHTER -> maternal
+                    ? (male ? MATERNAL_GRANDFATHER : MATERNAL_GRANDMOTHER)
+                    : (male ? PATERNAL_GRANDFATHER : PATERNAL_GRANDMOTHER);
+
+            case PATERNAL_UNCLE, PATERNAL_AUNT, MATERNAL_UNCLE, MATERNAL_AUNT -> male ? NEPHEW : NIECE;
+            case NEPHEW -> maternal ? MATERNAL_UNCLE : PATERNAL_UNCLE;
+            case NIECE -> maternal ? MATERNAL_AUNT : PATERNAL_AUNT;
+
+            case PATERNAL_COUSIN_BROTHER, PATERNAL_COUSIN_SISTER -> male ? PATERNAL_COUSIN_BROTHER : PATERNAL_COUSIN_SISTER;
+            case MATERNAL_COUSIN_BROTHER, MATERNAL_COUSIN_SISTER -> male ? MATERNAL_COUSIN_BROTHER : MATERNAL_COUSIN_SISTER;
+
+            case FATHER_IN_LAW -> SON_IN_LAW;
+            case MOTHER_IN_LAW -> DAUGHTER_IN_LAW;
+            case BROTHER_IN_LAW -> SISTER_IN_LAW;
+            case SISTER_IN_LAW -> BROTHER_IN_LAW;
+            case SON_IN_LAW -> FATHER_IN_LAW;
+            case DAUGHTER_IN_LAW -> MOTHER_IN_LAW;
+
+            case GREAT_GRANDFATHER, GREAT_GRANDMOTHER -> male ? GREAT_GRANDSON : GREAT_GRANDDAUGHTER;
+            case GREAT_GRANDSON -> GREAT_GRANDFATHER;
+            case GREAT_GRANDDAUGHTER -> GREAT_GRANDMOTHER;
+
+            case STEP_FATHER, STEP_MOTHER -> male ? STEP_SON : STEP_DAUGHTER;
+            case STEP_BROTHER, STEP_SISTER -> male ? STEP_BROTHER : STEP_SISTER;
+            case STEP_SON -> STEP_FATHER;
+            case STEP_DAUGHTER -> STEP_MOTHER;
+        };
+    }
+}
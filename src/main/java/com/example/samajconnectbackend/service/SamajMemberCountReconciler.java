@@ -0,0 +1,32 @@
+package com.example.samajconnectbackend.service;
+
+import com.example.samajconnectbackend.repository.SamajRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Periodically recomputes samajs.member_count from users, correcting any drift
+ * (rows written before the counter existed, manual data fixes, ...)
+ */
+@Component
+public class SamajMemberCountReconciler {
+
+    private static final Logger logger = LoggerFactory.getLogger(SamajMemberCountReconciler.class);
+
+    @Autowired
+    private SamajRepository samajRepository;
+
+    @Scheduled(initialDelayString = "${app.samaj.member-count.reconcile-initial-delay-ms:10000}",
+            fixedDelayString = "${app.samaj.member-count.reconcile-interval-ms:3600000}")
+    @Transactional
+    public void reconcile() {
+        int corrected = samajRepository.reconcileMemberCounts();
+        if (corrected > 0) {
+            logger.info("Corrected member_count of {} samaj(s)", corrected);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.samajconnectbackend.service;
+
+import com.example.samajconnectbackend.entity.User;
+import com.example.samajconnectbackend.repository.SamajRepository;
+import com.example.samajconnectbackend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class SamajMembershipService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SamajRepository samajRepository;
+
+    /**
+     * Save a new member of an existing samaj and bump the samaj's member count in the same transaction
+     */
+    @Transactional
+    public User registerMember(User user) {
+        User savedUser = userRepository.save(user);
+        if (savedUser.getSamaj() != null) {
+            samajRepository.adjustMemberCount(savedUser.getSamaj().getId(), 1);
+        }
+        return savedUser;
+    }
+}
@@ -2,11 +2,13 @@ package com.example.samajconnectbackend.service;
 import com.example.samajconnectbackend.dto.*;
 import com.example.samajconnectbackend.entity.Samaj;
 import com.example.samajconnectbackend.entity.User;
+import com.example.samajconnectbackend.event.MemberChangedEvent;
 import com.example.samajconnectbackend.repository.SamajRepository;
 import com.example.samajconnectbackend.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -38,6 +40,9 @@ public class SamajService {
     @Autowired
     private OtpService otpService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * Get all samajs
      */
@@ -92,6 +97,7 @@ public class SamajService {
             samaj.setDescription(request.getDescription());
             samaj.setRules(request.getRules());
             samaj.setEstablishedDate(request.getEstablishedDate());
+            samaj.setMemberCount(1); // the admin created below, in the same transaction
 
             Samaj savedSamaj = samajRepository.save(samaj);
 
@@ -110,13 +116,10 @@ public class SamajService {
             adminUser.setOtpExpiry(LocalDateTime.now().plusMinutes(10));
 
             User savedAdmin = userRepository.save(adminUser);
+            eventPublisher.publishEvent(MemberChangedEvent.of(savedAdmin));
 
-            // Send verification email
-            boolean emailSent = emailService.sendOtpEmail(savedAdmin.getEmail(), otp, savedAdmin.getName());
-
-            if (!emailSent) {
-                logger.warn("Samaj created but failed to send verification email to admin: {}", request.getAdminEmail());
-            }
+            // Queue the verification email; it is sent once this transaction commits
+            emailService.queueOtpEmail(savedAdmin.getEmail(), otp, savedAdmin.getName());
 
             SamajDto samajDto = convertToSamajDto(savedSamaj);
 
@@ -167,15 +170,13 @@ public class SamajService {
      * Convert Samaj entity to DTO
      */
     private SamajDto convertToSamajDto(Samaj samaj) {
-        int memberCount = samajRepository.countMembersBySamajId(samaj.getId());
-
         return new SamajDto(
                 samaj.getId(),
                 samaj.getName(),
                 samaj.getDescription(),
                 samaj.getRules(),
                 samaj.getEstablishedDate(),
-                memberCount
+                samaj.getMemberCountOrZero()
         );
     }
 }
\ No newline at end of file
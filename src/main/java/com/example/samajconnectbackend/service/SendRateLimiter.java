@@ -0,0 +1,30 @@
+package com.example.samajconnectbackend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps how fast emails go out across all outbox workers, to stay under the mail provider's limits
+ */
+@Component
+public class SendRateLimiter {
+
+    private final TokenBucket bucket;
+
+    public SendRateLimiter(@Value("${app.mail.rate-limit.per-second:5}") double perSecond,
+                           @Value("${app.mail.rate-limit.burst:10}") int burst) {
+        this.bucket = new TokenBucket(perSecond, burst, System::nanoTime);
+    }
+
+    /**
+     * Block until the next email may be sent
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos = bucket.reserve();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.samajconnectbackend.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps authenticated SMTP connections open between sends, so a burst of emails pays the TLS
+ * handshake and login once per connection instead of once per message. At most max-connections are
+ * open at a time; connections idle for longer than idle-timeout are closed.
+ * <p>
+ * Senders without an SMTP host (such as the in-memory sender) are used directly.
+ */
+@Component
+public class SmtpTransportPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(SmtpTransportPool.class);
+
+    private final JavaMailSender mailSender;
+    private final long idleTimeoutMillis;
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<>();
+    private final Timer sentTimer;
+    private final Timer failedTimer;
+
+    private static final class PooledTransport {
+        final Transport transport;
+        long lastUsedMillis;
+
+        PooledTransport(Transport transport) {
+            this.transport = transport;
+            this.lastUsedMillis = System.currentTimeMillis();
+        }
+    }
+
+    public SmtpTransportPool(JavaMailSender mailSender,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.mail.smtp.pool.max-connections:2}") int maxConnections,
+                             @Value("${app.mail.smtp.pool.idle-timeout-ms:60000}") long idleTimeoutMillis) {
+        this.mailSender = mailSender;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.permits = new Semaphore(maxConnections, true);
+        this.sentTimer = meterRegistry.timer("email.send", Tags.of("result", "sent"));
+        this.failedTimer = meterRegistry.timer("email.send", Tags.of("result", "failed"));
+        meterRegistry.gaugeCollectionSize("email.smtp.connections.idle", Tags.empty(), idle);
+    }
+
+    /**
+     * Send one message over a pooled connection, waiting for a free connection if all are busy
+     */
+    public void send(MimeMessage message) throws MessagingException, InterruptedException {
+        long start = System.nanoTime();
+        boolean sent = false;
+        try {
+            if (!pooling()) {
+                mailSender.send(message);
+            } else {
+                sendPooled(message);
+            }
+            sent = true;
+        } finally {
+            (sent ? sentTimer : failedTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void sendPooled(MimeMessage message) throws MessagingException, InterruptedException {
+        message.saveChanges();
+
+        permits.acquire();
+        try {
+            if (!sendOn(borrow(), message)) {
+                // The server dropped the connection while it sat idle; retry once on a fresh one
+                if (!sendOn(new PooledTransport(connect()), message)) {
+                    throw new MessagingException("SMTP connection closed while sending");
+                }
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Send on the given connection and return it to the pool. Returns false if the connection turned
+     * out to be closed; throws if the server rejected the message on a live connection.
+     */
+    private boolean sendOn(PooledTransport pooled, MimeMessage message) throws MessagingException {
+        try {
+            pooled.transport.sendMessage(message, message.getAllRecipients());
+        } catch (MessagingException e) {
+            if (!pooled.transport.isConnected()) {
+                close(pooled);
+                return false;
+            }
+            release(pooled);
+            throw e;
+        }
+        release(pooled);
+        return true;
+    }
+
+    private PooledTransport borrow() throws MessagingException {
+        PooledTransport pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (!expired(pooled) && pooled.transport.isConnected()) {
+                return pooled;
+            }
+            close(pooled);
+        }
+        return new PooledTransport(connect());
+    }
+
+    private void release(PooledTransport pooled) {
+        pooled.lastUsedMillis = System.currentTimeMillis();
+        // Most recently used first, so the warmest connections get reused and the rest can expire
+        idle.offerFirst(pooled);
+    }
+
+    private Transport connect() throws MessagingException {
+        JavaMailSenderImpl smtp = (JavaMailSenderImpl) mailSender;
+        Transport transport = smtp.getSession().getTransport(smtp.getProtocol());
+        transport.connect(smtp.getHost(), smtp.getPort(), smtp.getUsername(), smtp.getPassword());
+        logger.debug("Opened SMTP connection to {}", smtp.getHost());
+        return transport;
+    }
+
+    private boolean pooling() {
+        return mailSender instanceof JavaMailSenderImpl && ((JavaMailSenderImpl) mailSender).getHost() != null;
+    }
+
+    private boolean expired(PooledTransport pooled) {
+        return System.currentTimeMillis() - pooled.lastUsedMillis > idleTimeoutMillis;
+    }
+
+    /**
+     * Close connections that have been idle for too long
+     */
+    @Scheduled(fixedDelayString = "${app.mail.smtp.pool.idle-timeout-ms:60000}")
+    public void evictIdle() {
+        Iterator<PooledTransport> iterator = idle.iterator();
+        while (iterator.hasNext()) {
+            PooledTransport pooled = iterator.next();
+            if (expired(pooled) && idle.removeFirstOccurrence(pooled)) {
+                close(pooled);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        PooledTransport pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            close(pooled);
+        }
+    }
+
+    private void close(PooledTransport pooled) {
+        try {
+            pooled.transport.close();
+        } catch (MessagingException e) {
+            logger.debug("Error closing SMTP connection: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.samajconnectbackend.service;
+
+import com.example.samajconnectbackend.dto.EventSummaryDto;
+import com.example.samajconnectbackend.entity.ImageVariant;
+import com.example.samajconnectbackend.repository.EventRepository;
+import com.example.samajconnectbackend.repository.SamajRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-samaj cache of the next few upcoming events shown on the home screen.
+ * <p>
+ * An entry is dropped when an event of the samaj is created, updated or deleted, and expires as soon as
+ * its earliest event starts, since that event then leaves the list. A samaj with no upcoming events is
+ * cached for a short while only, and ids that aren't a samaj are never cached. At most max-samajs entries
+ * are kept. Hits and misses are counted in the events.upcoming.cache.requests metric.
+ */
+@Service
+public class UpcomingEventsCache {
+
+    static final int UPCOMING_LIMIT = 3;
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventImageService eventImageService;
+
+    @Autowired
+    private SamajRepository samajRepository;
+
+    @Value("${app.events.upcoming-cache.empty-ttl-ms:300000}")
+    private long emptyTtlMillis;
+
+    @Value("${app.events.upcoming-cache.max-samajs:10000}")
+    private int maxEntries;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    // Bumped on every eviction, so a load that raced with a change doesn't cache what it read. Samajs share
+    // a fixed set of stripes; a collision only makes a load skip caching.
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    private static final class Entry {
+        final List<EventSummaryDto> events;
+        final LocalDateTime expiresAt;
+
+        Entry(List<EventSummaryDto> events, LocalDateTime expiresAt) {
+            this.events = events;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    public UpcomingEventsCache(MeterRegistry meterRegistry) {
+        this.hits = meterRegistry.counter("events.upcoming.cache.requests", Tags.of("result", "hit"));
+        this.misses = meterRegistry.counter("events.upcoming.cache.requests", Tags.of("result", "miss"));
+        meterRegistry.gaugeMapSize("events.upcoming.cache.size", Tags.empty(), entries);
+    }
+
+    /**
+     * Upcoming events of a samaj, soonest first. The returned summaries are shared with the cache,
+     * so callers must copy them before changing anything.
+     */
+    public List<EventSummaryDto> get(Long samajId) {
+        LocalDateTime now = LocalDateTime.now();
+
+        Entry entry = entries.get(samajId);
+        if (entry != null && !now.isAfter(entry.expiresAt)) {
+            hits.increment();
+            return entry.events;
+        }
+        misses.increment();
+
+        int stripe = stripeOf(samajId);
+        long generation = generations.get(stripe);
+        List<EventSummaryDto> events = eventRepository.findUpcomingSummariesBySamajId(
+                samajId, now, PageRequest.of(0, UPCOMING_LIMIT));
+        for (EventSummaryDto event : events) {
+            event.setImageUrl(eventImageService.imageUrl(event.getId(), event.getImageVersion(), ImageVariant.SMALL));
+        }
+
+        if (events.isEmpty() && !samajRepository.existsById(samajId)) {
+            return List.of();
+        }
+
+        // Sorted by date, so the first event is the one whose start expires the entry
+        Entry loaded = new Entry(List.copyOf(events), events.isEmpty()
+                ? now.plus(Duration.ofMillis(emptyTtlMillis))
+                : events.get(0).getEventDate());
+        if (hasRoomFor(samajId, now)) {
+            // Check and store under the entry's lock: evict() bumps the generation before removing, so a
+            // racing eviction either fails this check or removes what was stored
+            entries.compute(samajId, (id, current) -> generations.get(stripe) == generation ? loaded : current);
+        }
+        return loaded.events;
+    }
+
+    /**
+     * Whether a samaj's entry can be stored, after dropping expired entries when the cache is full
+     */
+    private boolean hasRoomFor(Long samajId, LocalDateTime now) {
+        if (entries.size() < maxEntries || entries.containsKey(samajId)) {
+            return true;
+        }
+        entries.values().removeIf(entry -> now.isAfter(entry.expiresAt));
+        return entries.size() < maxEntries;
+    }
+
+    /**
+     * Drop a samaj's entry once the current transaction commits (right away outside a transaction)
+     */
+    public void evictAfterCommit(Long samajId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(samajId);
+                }
+            });
+        } else {
+            evict(samajId);
+        }
+    }
+
+    public void evict(Long samajId) {
+        generations.incrementAndGet(stripeOf(samajId));
+        entries.remove(samajId);
+    }
+
+    private static int stripeOf(Long samajId) {
+        return Math.floorMod(Long.hashCode(samajId), GENERATION_STRIPES);
+    }
+}
@@ -1,13 +1,18 @@
 package com.example.samajconnectbackend.service;
 
 import com.example.samajconnectbackend.dto.*;
+import com.example.samajconnectbackend.entity.ImageVariant;
 import com.example.samajconnectbackend.entity.Samaj;
 import com.example.samajconnectbackend.entity.User;
+import com.example.samajconnectbackend.event.MemberChangedEvent;
 import com.example.samajconnectbackend.repository.SamajRepository;
 import com.example.samajconnectbackend.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -15,11 +20,16 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class UserService {
@@ -44,6 +54,30 @@ public class UserService {
     @Autowired
     private SamajRepository samajRepository;
 
+    @Autowired
+    private ProfileImageService profileImageService;
+
+    @Autowired
+    private RelationshipStatusResolver relationshipStatusResolver;
+
+    @Autowired
+    private MemberSearchService memberSearchService;
+
+    @Autowired
+    private MemberTypeaheadIndex memberTypeaheadIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private SamajMembershipService samajMembershipService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     public LoginResponse authenticateUser(LoginRequest loginRequest) {
         System.out.println("Login Method called : " + LocalDateTime.now());
         try {
@@ -150,16 +184,13 @@ public class UserService {
                 user.setSamaj(samajOptional.get());
             }
 
-            // Save the user
-            User savedUser = userRepository.save(user);
-
-            // Send verification email
-            boolean emailSent = emailService.sendOtpEmail(savedUser.getEmail(), otp, savedUser.getName());
-
-            if (!emailSent) {
-                logger.warn("Registration successful but failed to send verification email: {}", email);
-                return new RegisterResponse(false, "Registration successful but failed to send verification email. Please try resending OTP.");
-            }
+            // Save the user, count them in the samaj and queue the verification email in one transaction
+            User savedUser = transactionTemplate.execute(status -> {
+                User saved = samajMembershipService.registerMember(user);
+                emailService.queueOtpEmail(saved.getEmail(), otp, saved.getName());
+                return saved;
+            });
+            eventPublisher.publishEvent(MemberChangedEvent.of(savedUser));
 
             logger.info("User registered successfully: {}", email);
             return new RegisterResponse(true, "Registration successful! Please check your email for verification code.");
@@ -231,18 +262,14 @@ public class UserService {
                 return new ResendOtpResponse(false, "Email is already verified");
             }
 
-            // Generate new OTP
+            // Store the new OTP and queue its email together
             String newOtp = otpService.generateOtp();
             user.setOtpCode(newOtp);
             user.setOtpExpiry(otpService.getOtpExpiry());
-            userRepository.save(user);
-
-            // Send new OTP email
-            boolean emailSent = emailService.sendOtpEmail(user.getEmail(), newOtp, user.getName());
-
-            if (!emailSent) {
-                return new ResendOtpResponse(false, "Failed to send OTP email");
-            }
+            transactionTemplate.executeWithoutResult(status -> {
+                userRepository.save(user);
+                emailService.queueOtpEmail(user.getEmail(), newOtp, user.getName());
+            });
 
             logger.info("OTP resent successfully to: {}", email);
             return new ResendOtpResponse(true, "OTP sent successfully! Please check your email.");
@@ -265,10 +292,12 @@ public class UserService {
         String otp = otpService.generateOtp();
         user.setOtpCode(otp);
         user.setOtpExpiry(LocalDateTime.now().plusMinutes(10));
-        userRepository.save(user);
+        transactionTemplate.executeWithoutResult(status -> {
+            userRepository.save(user);
+            emailService.queueOtpEmail(user.getEmail(), otp, user.getName());
+        });
 
-        boolean sent = emailService.sendOtpEmail(user.getEmail(), otp, user.getName());
-        return sent ? "OTP sent to your email" : "Failed to send OTP";
+        return "OTP sent to your email";
     }
 
     public String resetPassword(ResetPasswordRequest request) {
@@ -320,18 +349,23 @@ public class UserService {
             // Handle profile image update (similar to event image handling)
             if (request.getImageBase64() != null) {
                 if (request.getImageBase64().isEmpty()) {
-                    existingUser.setProfileImg(null); // Remove image
+                    profileImageService.removeProfileImage(existingUser); // Remove image
                 } else {
+                    // Validate before touching storage so an invalid upload leaves the current image in place
+                    Map<ImageVariant, ImageProcessingService.ProcessedImage> renditions;
                     try {
-                        existingUser.setProfileImg(request.getImageBytes()); // Update image
-                    } catch (RuntimeException e) {
+                        renditions = profileImageService.prepareImage(request.getImageBytes());
+                    } catch (IllegalArgumentException e) {
                         return new UpdateUserProfileResponse(false, "Invalid image format: " + e.getMessage());
                     }
+                    // Stores the small/medium/original renditions; a failure here rolls the update back
+                    profileImageService.storeImage(existingUser, renditions);
                 }
             }
 
-            // Save the updated user
-            User updatedUser = userRepository.save(existingUser);
+            // Save the updated user; flush so updatedAt (and with it the avatar URL version) is current
+            User updatedUser = userRepository.saveAndFlush(existingUser);
+            eventPublisher.publishEvent(MemberChangedEvent.of(updatedUser));
             logger.info("User profile updated successfully for user ID: {}", userId);
 
             // Convert to DTO and return
@@ -339,9 +373,10 @@ public class UserService {
             System.out.println(userDto.toString());
 
             return new UpdateUserProfileResponse(true, "Profile updated successfully", userDto);
-        } catch (Exception e) {
+        } catch (RuntimeException e) {
+            // Rethrown so the transaction rolls back instead of failing at commit; the controller reports it
             logger.error("Error updating user profile for user ID {}: {}", userId, e.getMessage());
-            return new UpdateUserProfileResponse(false, "Failed to update profile: " + e.getMessage());
+            throw e;
         }
     }
 
@@ -355,7 +390,7 @@ public class UserService {
         userDto.setEmail(user.getEmail());
         userDto.setGender(String.valueOf(user.getGender()));
         userDto.setIsAdmin(user.getIsAdmin());
-        userDto.setProfileImg(user.getProfileImg());
+        userDto.setProfileImageUrl(profileImageService.avatarUrl(user, ImageVariant.MEDIUM));
         userDto.setPhoneNumber(user.getPhoneNumber());
         userDto.setAddress(user.getAddress());
         userDto.setCreatedAt(user.getCreatedAt());
@@ -398,14 +433,20 @@ public class UserService {
             // Search users
             Page<User> userPage;
             if (searchDto.getQuery() != null && !searchDto.getQuery().trim().isEmpty()) {
-                userPage = userRepository.findSamajMembersByQuery(samajId, currentUserId, searchDto.getQuery().trim(), pageable);
+                userPage = memberSearchService.searchSamajMembers(samajId, currentUserId, searchDto.getQuery().trim(), pageable);
             } else {
                 userPage = userRepository.findAllSamajMembers(samajId, currentUserId, pageable);
             }
 
+            // Resolve relationship status for the whole page at once
+            Map<Long, SamajMemberDto.RelationshipStatus> statuses = relationshipStatusResolver.resolve(
+                    currentUserId,
+                    userPage.getContent().stream().map(User::getId).collect(Collectors.toList()));
+
             // Convert to DTOs with relationship status
             List<SamajMemberDto> memberDtos = userPage.getContent().stream()
-                    .map(user -> convertToSamajMemberDto(user, currentUserId))
+                    .map(user -> convertToSamajMemberDto(user,
+                            statuses.getOrDefault(user.getId(), SamajMemberDto.RelationshipStatus.AVAILABLE)))
                     .collect(Collectors.toList());
 
             // Build response
@@ -429,10 +470,54 @@ public class UserService {
         }
     }
 
+    /**
+     * Search-as-you-type over a samaj's members. Served from the in-memory index when it is enabled,
+     * otherwise from the first page of the regular member search. Not transactional on purpose:
+     * a warm index must not even check out a connection.
+     */
+    public ApiResponse<List<TypeaheadMemberDto>> typeaheadSamajMembers(Long samajId, String query, Long excludeUserId, int limit) {
+        try {
+            if (query == null || query.trim().isEmpty()) {
+                return ApiResponse.success("No query given", List.of());
+            }
+
+            List<TypeaheadMemberDto> suggestions;
+            if (memberTypeaheadIndex.isEnabled()) {
+                suggestions = memberTypeaheadIndex.search(samajId, query, excludeUserId, limit).stream()
+                        .map(member -> new TypeaheadMemberDto(
+                                member.getUserId(),
+                                member.getName(),
+                                member.getEmail(),
+                                member.getPhoneNumber(),
+                                profileImageService.avatarUrl(member.getUserId(), member.getProfileImageVersion(), ImageVariant.SMALL)))
+                        .collect(Collectors.toList());
+            } else {
+                Pageable pageable = PageRequest.of(0, limit);
+                Page<User> userPage = excludeUserId != null
+                        ? memberSearchService.searchSamajMembers(samajId, excludeUserId, query.trim(), pageable)
+                        : memberSearchService.searchMembersBySamajId(samajId, query.trim(), pageable);
+                suggestions = userPage.getContent().stream()
+                        .map(user -> new TypeaheadMemberDto(
+                                user.getId(),
+                                user.getName(),
+                                user.getEmail(),
+                                user.getPhoneNumber(),
+                                profileImageService.avatarUrl(user, ImageVariant.SMALL)))
+                        .collect(Collectors.toList());
+            }
+
+            return ApiResponse.success("Suggestions retrieved successfully", suggestions);
+
+        } catch (Exception e) {
+            logger.error("Error in typeahead for samaj {}: {}", samajId, e.getMessage(), e);
+            return ApiResponse.error("Failed to search samaj members: " + e.getMessage());
+        }
+    }
+
     /**
      * Convert User entity to SamajMemberDto with relationship status
      */
-    private SamajMemberDto convertToSamajMemberDto(User user, Long currentUserId) {
+    private SamajMemberDto convertToSamajMemberDto(User user, SamajMemberDto.RelationshipStatus status) {
         SamajMemberDto dto = new SamajMemberDto();
         dto.setUserId(user.getId());
         dto.setName(user.getName());
@@ -442,46 +527,14 @@ public class UserService {
         dto.setAddress(user.getAddress());
 
         // Set profile image
-        dto.setProfileImageFromBytes(user.getProfileImg());
+        dto.setProfileImage(profileImageService.avatarUrl(user, ImageVariant.SMALL));
 
-        // Determine relationship status
-        SamajMemberDto.RelationshipStatus status = determineRelationshipStatus(currentUserId, user.getId());
         dto.setRelationshipStatus(status);
         dto.setRelationshipStatusText(getRelationshipStatusText(status));
 
         return dto;
     }
 
-    /**
-     * Determine the relationship status between current user and target user
-     */
-    private SamajMemberDto.RelationshipStatus determineRelationshipStatus(Long currentUserId, Long targetUserId) {
-        try {
-            // Check if they already have a relationship
-            if (userRepository.hasRelationship(currentUserId, targetUserId)) {
-                return SamajMemberDto.RelationshipStatus.ALREADY_RELATED;
-            }
-
-            // Check if current user sent a request to target user
-            if (userRepository.hasSentRequestTo(currentUserId, targetUserId)) {
-                return SamajMemberDto.RelationshipStatus.REQUEST_SENT;
-            }
-
-            // Check if target user sent a request to current user
-            if (userRepository.hasReceivedRequestFrom(currentUserId, targetUserId)) {
-                return SamajMemberDto.RelationshipStatus.REQUEST_RECEIVED;
-            }
-
-            // No relationship or pending requests - available for new request
-            return SamajMemberDto.RelationshipStatus.AVAILABLE;
-
-        } catch (Exception e) {
-            logger.error("Error determining relationship status between users {} and {}: {}",
-                    currentUserId, targetUserId, e.getMessage());
-            return SamajMemberDto.RelationshipStatus.AVAILABLE; // Default to available on error
-        }
-    }
-
     /**
      * Get human-readable text for relationship status
      */
@@ -544,6 +597,80 @@ public class UserService {
         }
     }
 
+    /**
+     * List or search members of a samaj with keyset paging on (name, id).
+     * Unlike the offset variants this costs the same at any depth and runs no count query.
+     */
+    @Transactional(readOnly = true)
+    public ApiResponse<SamajMembersCursorResponse> getSamajMembersByCursor(Long samajId, String query, String cursor, int size) {
+        try {
+            KeysetCursor after;
+            try {
+                after = KeysetCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                return ApiResponse.error(e.getMessage());
+            }
+
+            Optional<Samaj> samajOptional = samajRepository.findById(samajId);
+            if (samajOptional.isEmpty()) {
+                return ApiResponse.error("Samaj not found");
+            }
+
+            // One extra row tells us whether there is a next page
+            Pageable limit = PageRequest.of(0, size + 1);
+            List<User> users;
+            if (query != null && !query.trim().isEmpty()) {
+                users = userRepository.findMembersBySamajIdAndQueryAfter(
+                        samajId, query.trim(), after.getName(), after.getId(), limit);
+            } else {
+                users = userRepository.findMembersBySamajIdAfter(samajId, after.getName(), after.getId(), limit);
+            }
+
+            boolean hasNext = users.size() > size;
+            if (hasNext) {
+                users = users.subList(0, size);
+            }
+
+            SamajMembersCursorResponse response = new SamajMembersCursorResponse();
+            response.setMembers(users.stream()
+                    .map(this::convertToDetailedUserDto)
+                    .collect(Collectors.toList()));
+            response.setHasNext(hasNext);
+            if (hasNext) {
+                User last = users.get(users.size() - 1);
+                response.setNextCursor(new KeysetCursor(last.getName(), last.getId()).encode());
+            }
+            response.setSamajId(samajId);
+            response.setSamajName(samajOptional.get().getName());
+            response.setMessage("Members retrieved successfully");
+
+            return ApiResponse.success("Samaj members retrieved successfully", response);
+
+        } catch (Exception e) {
+            logger.error("Error retrieving samaj members by cursor for samaj {}: {}", samajId, e.getMessage(), e);
+            return ApiResponse.error("Failed to retrieve samaj members: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Pass every member of a samaj, ordered by name, to action. Rows are read through a cursor and
+     * detached once handled, so memory stays flat however large the samaj is. Returns the number of members.
+     */
+    @Transactional(readOnly = true)
+    public int forEachSamajMember(Long samajId, Consumer<DetailedUserDto> action) {
+        int count = 0;
+        try (Stream<User> users = userRepository.streamMembersBySamajId(samajId)) {
+            Iterator<User> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                User user = iterator.next();
+                action.accept(convertToDetailedUserDto(user));
+                entityManager.detach(user);
+                count++;
+            }
+        }
+        return count;
+    }
+
     /**
      * Search members of a specific samaj by samaj ID
      */
@@ -564,7 +691,7 @@ public class UserService {
             // Search members
             Page<User> userPage;
             if (searchDto.getQuery() != null && !searchDto.getQuery().trim().isEmpty()) {
-                userPage = userRepository.findSamajMembersBySamajIdAndQuery(
+                userPage = memberSearchService.searchMembersBySamajId(
                         searchDto.getSamajId(),
                         searchDto.getQuery().trim(),
                         pageable
@@ -616,8 +743,8 @@ public class UserService {
 
             Samaj samaj = samajOptional.get();
 
-            // Get member count
-            long totalMembers = userRepository.countMembersBySamajId(samajId);
+            // Get member count (maintained on the samaj row)
+            long totalMembers = samaj.getMemberCountOrZero();
 
             // Build stats
             SamajStatsDto stats = new SamajStatsDto();
@@ -649,8 +776,8 @@ public class UserService {
         dto.setCreatedAt(user.getCreatedAt());
         dto.setUpdatedAt(user.getUpdatedAt());
 
-        // Set profile image
-        dto.setProfileImageFromBytes(user.getProfileImg());
+        // Only member lists use this DTO, so they get the small rendition
+        dto.setProfileImageUrl(profileImageService.avatarUrl(user, ImageVariant.SMALL));
 
         // Add samaj information
         if (user.getSamaj() != null) {
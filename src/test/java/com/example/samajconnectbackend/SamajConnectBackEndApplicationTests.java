@@ -1,8 +1,12 @@
 package com.example.samajconnectbackend;
 
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
 
+@Tag("integration")
+@ActiveProfiles("integration")
 @SpringBootTest
 class SamajConnectBackEndApplicationTests {
 
@@ -0,0 +1,29 @@
+package com.example.samajconnectbackend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EmailOutboxServiceTests {
+
+    @Test
+    void retryDelayDoublesFromThirtySeconds() {
+        assertEquals(Duration.ofSeconds(30), EmailOutboxService.retryDelay(1));
+        assertEquals(Duration.ofMinutes(1), EmailOutboxService.retryDelay(2));
+        assertEquals(Duration.ofMinutes(2), EmailOutboxService.retryDelay(3));
+        assertEquals(Duration.ofMinutes(16), EmailOutboxService.retryDelay(6));
+    }
+
+    @Test
+    void retryDelayIsCappedAtAnHour() {
+        assertEquals(Duration.ofHours(1), EmailOutboxService.retryDelay(8));
+        assertEquals(Duration.ofHours(1), EmailOutboxService.retryDelay(1000));
+    }
+
+    @Test
+    void retryDelayTreatsNoFailuresAsTheFirstRetry() {
+        assertEquals(Duration.ofSeconds(30), EmailOutboxService.retryDelay(0));
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.samajconnectbackend.service;
+
+import com.example.samajconnectbackend.entity.Event;
+import com.example.samajconnectbackend.entity.EventReaction;
+import com.example.samajconnectbackend.entity.ReactionType;
+import com.example.samajconnectbackend.repository.EventReactionRepository;
+import com.example.samajconnectbackend.repository.EventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Fires thousands of parallel reaction toggles at one event and checks that rows and counters agree.
+ * Needs the database in application-integration.properties; run with {@code mvn -P integration-tests test}.
+ */
+@Tag("integration")
+@ActiveProfiles("integration")
+@SpringBootTest
+class EventReactionConcurrencyTests {
+
+    private static final int USERS = 40;
+    private static final int THREADS = 16;
+
+    @Autowired
+    private EventReactionService eventReactionService;
+
+    @Autowired
+    private EventReactionRepository eventReactionRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private ReactionCounterAggregator reactionCounterAggregator;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Counters are only kept for events that exist, so each test reacts to an event row of its own
+    private Long eventId;
+    private final Long firstUserId = -ThreadLocalRandom.current().nextLong(1_000_000, Long.MAX_VALUE / 2);
+
+    @BeforeEach
+    void createEvent() {
+        eventId = transactionTemplate.execute(status -> eventRepository.save(new Event(
+                "Reaction concurrency test", null, null, LocalDateTime.now().plusDays(1), -1L, -1L)).getId());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            eventReactionRepository.deleteByEventId(eventId);
+            eventRepository.deleteById(eventId);
+            reactionCounterAggregator.forgetAfterCommit(eventId);
+        });
+    }
+
+    @Test
+    void repeatedLikeTogglesEndInTheStateTheirParityImplies() throws Exception {
+        List<Callable<Object>> toggles = new ArrayList<>();
+        int expectedLikes = 0;
+        for (int i = 0; i < USERS; i++) {
+            Long userId = firstUserId - i;
+            int taps = 50 + i;
+            for (int tap = 0; tap < taps; tap++) {
+                toggles.add(() -> eventReactionService.addOrUpdateReaction(userId, eventId, "LIKE"));
+            }
+            if (taps % 2 == 1) {
+                expectedLikes++;
+            }
+        }
+
+        runInParallel(toggles);
+
+        assertEquals(expectedLikes, eventReactionRepository.findByEventId(eventId).size());
+        assertEquals(expectedLikes, eventReactionRepository.countByEventIdAndReactionType(eventId, ReactionType.LIKE));
+        assertEquals(expectedLikes, reactionCounterAggregator.getLikeCount(eventId));
+        assertEquals(0, reactionCounterAggregator.getDislikeCount(eventId));
+    }
+
+    @Test
+    void mixedTogglesLeaveAtMostOneRowPerUserAndMatchingCounters() throws Exception {
+        List<Callable<Object>> toggles = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            Long userId = firstUserId - i;
+            for (int tap = 0; tap < 60; tap++) {
+                String type = ThreadLocalRandom.current().nextBoolean() ? "LIKE" : "DISLIKE";
+                toggles.add(() -> eventReactionService.addOrUpdateReaction(userId, eventId, type));
+            }
+            toggles.add(() -> {
+                eventReactionService.removeReaction(userId, eventId);
+                return null;
+            });
+        }
+
+        runInParallel(toggles);
+
+        List<EventReaction> rows = eventReactionRepository.findByEventId(eventId);
+        Set<Long> users = new HashSet<>();
+        for (EventReaction row : rows) {
+            users.add(row.getUserId());
+        }
+        assertEquals(rows.size(), users.size());
+
+        assertEquals(eventReactionRepository.countByEventIdAndReactionType(eventId, ReactionType.LIKE),
+                reactionCounterAggregator.getLikeCount(eventId));
+        assertEquals(eventReactionRepository.countByEventIdAndReactionType(eventId, ReactionType.DISLIKE),
+                reactionCounterAggregator.getDislikeCount(eventId));
+    }
+
+    private void runInParallel(List<Callable<Object>> tasks) throws Exception {
+        Collections.shuffle(tasks);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (Future<Object> future : executor.invokeAll(tasks)) {
+                future.get(); // rethrows any failed toggle
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.samajconnectbackend.service;
+
+import com.example.samajconnectbackend.dto.FamilyMemberSearchDto;
+import com.example.samajconnectbackend.entity.RelationshipSide;
+import com.example.samajconnectbackend.entity.RelationshipType;
+import com.example.samajconnectbackend.entity.Samaj;
+import com.example.samajconnectbackend.entity.User;
+import com.example.samajconnectbackend.entity.UserRelationship;
+import com.example.samajconnectbackend.repository.SamajRepository;
+import com.example.samajconnectbackend.repository.UserRelationshipRepository;
+import com.example.samajconnectbackend.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.LongConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Counts the SQL statements behind the family tree reads and checks they don't grow with the family.
+ * Needs the database in application-integration.properties; run with {@code mvn -P integration-tests test}.
+ */
+@Tag("integration")
+@ActiveProfiles("integration")
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // Keep the kinship graph's periodic change check out of the counts
+        "app.kinship.graph.check-interval-ms=3600000"
+})
+class FamilyTreeQueryCountTests {
+
+    private static final int SMALL_FAMILY = 3;
+    private static final int LARGE_FAMILY = 40;
+
+    @Autowired
+    private FamilyTreeService familyTreeService;
+
+    @Autowired
+    private SamajRepository samajRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserRelationshipRepository relationshipRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics statistics;
+    private final List<Long> samajIds = new ArrayList<>();
+    private final List<Long> userIds = new ArrayList<>();
+    private final List<Long> relationshipIds = new ArrayList<>();
+
+    @BeforeEach
+    void enableStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            relationshipRepository.deleteAllByIdInBatch(relationshipIds);
+            userRepository.deleteAllByIdInBatch(userIds);
+            samajRepository.deleteAllByIdInBatch(samajIds);
+        });
+    }
+
+    @Test
+    void familyTreeStatementsDoNotGrowWithTheFamily() {
+        assertConstantStatements(userId -> familyTreeService.getFamilyTree(userId));
+    }
+
+    @Test
+    void generationStatementsDoNotGrowWithTheFamily() {
+        assertConstantStatements(userId -> assertTrue(
+                familyTreeService.getFamilyMembersByGeneration(userId, RelationshipType.SON.getDefaultGenerationLevel())
+                        .size() >= SMALL_FAMILY));
+    }
+
+    @Test
+    void sideStatementsDoNotGrowWithTheFamily() {
+        assertConstantStatements(userId -> assertTrue(
+                familyTreeService.getFamilyMembersBySide(userId, RelationshipSide.DIRECT).size() >= SMALL_FAMILY));
+    }
+
+    @Test
+    void searchStatementsDoNotGrowWithTheFamily() {
+        assertConstantStatements(userId -> {
+            FamilyMemberSearchDto search = new FamilyMemberSearchDto();
+            // Room to spare, so every family fits on one page and no count query is needed
+            search.setSize(LARGE_FAMILY + 1);
+            assertTrue(familyTreeService.searchFamilyMembers(userId, search).getMembers().size() >= SMALL_FAMILY);
+        });
+    }
+
+    private void assertConstantStatements(LongConsumer read) {
+        long small = statementsFor(SMALL_FAMILY, read);
+        long large = statementsFor(LARGE_FAMILY, read);
+        assertEquals(small, large, "statements for " + SMALL_FAMILY + " vs " + LARGE_FAMILY + " relatives");
+    }
+
+    /**
+     * Statements issued by one read of a family with the given number of children, after a first read has
+     * loaded the samaj's kinship graph
+     */
+    private long statementsFor(int relatives, LongConsumer read) {
+        long rootUserId = createFamily(relatives);
+        read.accept(rootUserId);
+
+        statistics.clear();
+        read.accept(rootUserId);
+        return statistics.getPrepareStatementCount();
+    }
+
+    private long createFamily(int relatives) {
+        return transactionTemplate.execute(status -> {
+            String suffix = UUID.randomUUID().toString();
+            Samaj samaj = new Samaj();
+            samaj.setName("Query count test " + suffix);
+            samaj = samajRepository.save(samaj);
+            samajIds.add(samaj.getId());
+
+            User root = userRepository.save(newUser(samaj, "root-" + suffix, "MALE"));
+            userIds.add(root.getId());
+            for (int i = 0; i < relatives; i++) {
+                RelationshipType type = i % 2 == 0 ? RelationshipType.SON : RelationshipType.DAUGHTER;
+                User child = userRepository.save(newUser(samaj, "child-" + i + "-" + suffix,
+                        type == RelationshipType.SON ? "MALE" : "FEMALE"));
+                userIds.add(child.getId());
+
+                UserRelationship relationship = new UserRelationship();
+                relationship.setUserId(root.getId());
+                relationship.setRelatedUserId(child.getId());
+                relationship.setRelationshipType(type);
+                relationship.setRelationshipSide(type.getDefaultRelationshipSide());
+                relationship.setGenerationLevel(type.getDefaultGenerationLevel());
+                relationship.setCreatedBy(root.getId());
+                relationshipIds.add(relationshipRepository.save(relationship).getId());
+            }
+            return root.getId();
+        });
+    }
+
+    private static User newUser(Samaj samaj, String name, String gender) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@example.com");
+        user.setPassword("not-used");
+        user.setGender(gender);
+        user.setSamaj(samaj);
+        return user;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.samajconnectbackend.service;
+
+import com.example.samajconnectbackend.entity.RelationshipSide;
+import com.example.samajconnectbackend.entity.RelationshipType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KinshipGraphTests {
+
+    // 1 and 2 are the parents of 3 and 4; 5 is married to 3
+    private final KinshipGraph graph = KinshipGraph.of(List.of(
+            edge(10, 3, 1, RelationshipType.FATHER),
+            edge(11, 1, 3, RelationshipType.SON),
+            edge(12, 3, 2, RelationshipType.MOTHER),
+            edge(13, 2, 3, RelationshipType.SON),
+            edge(14, 4, 1, RelationshipType.FATHER),
+            edge(15, 4, 2, RelationshipType.MOTHER),
+            edge(16, 3, 4, RelationshipType.BROTHER),
+            edge(17, 3, 5, RelationshipType.WIFE),
+            edge(18, 5, 3, RelationshipType.HUSBAND)
+    ));
+
+    @Test
+    void outgoingEdgesAreOrderedByRelatedUser() {
+        List<KinshipGraph.Edge> edges = graph.edgesFrom(3);
+
+        assertEquals(List.of(1L, 2L, 4L, 5L), edges.stream().map(KinshipGraph.Edge::getRelatedUserId).toList());
+        assertEquals(RelationshipType.MOTHER, edges.get(1).getRelationshipType());
+        assertEquals(12L, edges.get(1).getRelationshipId());
+        assertEquals(5, graph.nodeCount());
+        assertEquals(9, graph.edgeCount());
+    }
+
+    @Test
+    void edgesCanBeFilteredByGenerationAndSide() {
+        assertEquals(List.of(1L, 2L), graph.edgesAtGeneration(3, -1).stream()
+                .map(KinshipGraph.Edge::getRelatedUserId).toList());
+        assertEquals(4, graph.edgesOnSide(3, RelationshipSide.DIRECT).size());
+        assertTrue(graph.edgesOnSide(3, RelationshipSide.PATERNAL).isEmpty());
+    }
+
+    @Test
+    void unknownUsersHaveNoEdges() {
+        assertTrue(graph.edgesFrom(99).isEmpty());
+        assertArrayEquals(new long[0], graph.relatedUserIds(99));
+    }
+
+    @Test
+    void mutualRelativesAreTheCommonRelatedUsers() {
+        long[] common = KinshipGraph.intersect(graph.relatedUserIds(3), graph.relatedUserIds(4));
+
+        assertArrayEquals(new long[]{1, 2}, common);
+    }
+
+    @Test
+    void upsertedEdgesReplaceEdgesWithTheSameId() {
+        KinshipGraph updated = graph.withEdges(List.of(
+                edge(16, 3, 4, RelationshipType.SISTER),
+                edge(19, 4, 3, RelationshipType.BROTHER)
+        ));
+
+        assertEquals(RelationshipType.SISTER, updated.edgesFrom(3).get(2).getRelationshipType());
+        assertEquals(List.of(1L, 2L, 3L), updated.edgesFrom(4).stream()
+                .map(KinshipGraph.Edge::getRelatedUserId).toList());
+        assertEquals(10, updated.edgeCount());
+        // The original snapshot is unchanged
+        assertEquals(RelationshipType.BROTHER, graph.edgesFrom(3).get(2).getRelationshipType());
+    }
+
+    @Test
+    void removingAPairDropsBothDirectionsAndOrphanedUsers() {
+        KinshipGraph updated = graph.withoutPair(5, 3);
+
+        assertEquals(List.of(1L, 2L, 4L), updated.edgesFrom(3).stream()
+                .map(KinshipGraph.Edge::getRelatedUserId).toList());
+        assertTrue(updated.edgesFrom(5).isEmpty());
+        assertEquals(4, updated.nodeCount());
+        assertEquals(7, updated.edgeCount());
+    }
+
+    private static KinshipGraph.Edge edge(long id, long userId, long relatedUserId, RelationshipType type) {
+        return new KinshipGraph.Edge(id, userId, relatedUserId, type, type.getDefaultRelationshipSide(),
+                type.getDefaultGenerationLevel());
+    }
+}
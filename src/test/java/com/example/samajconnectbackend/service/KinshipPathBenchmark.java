@@ -0,0 +1,125 @@
+package com.example.samajconnectbackend.service;
+
+import com.example.samajconnectbackend.entity.RelationshipType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Path search timings on a synthetic samaj. Not part of the test suite; run the main method from the IDE,
+ * optionally passing the member count (default 100000) and the number of queries (default 10000).
+ */
+public class KinshipPathBenchmark {
+
+    public static void main(String[] args) {
+        int members = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int queries = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        Random random = new Random(42);
+
+        long started = System.nanoTime();
+        List<KinshipGraph.Edge> edges = syntheticSamaj(members, random);
+        KinshipGraph graph = KinshipGraph.of(edges);
+        System.out.printf("Built graph: %d members, %d edges in %d ms%n",
+                graph.nodeCount(), graph.edgeCount(), (System.nanoTime() - started) / 1_000_000);
+
+        started = System.nanoTime();
+        graph = graph.withEdges(List.of(new KinshipGraph.Edge(edges.size() + 1, 1, 2,
+                RelationshipType.BROTHER, RelationshipType.BROTHER.getDefaultRelationshipSide(), 0)));
+        System.out.printf("Single edge upsert: %.1f ms%n", (System.nanoTime() - started) / 1e6);
+
+        KinshipGraph snapshot = graph;
+        KinshipPathFinder finder = new KinshipPathFinder(userId -> snapshot);
+
+        // Warm up, then measure
+        runQueries(finder, members, queries, random, false);
+        runQueries(finder, members, queries, random, true);
+    }
+
+    private static void runQueries(KinshipPathFinder finder, int members, int queries, Random random, boolean report) {
+        long[] nanos = new long[queries];
+        int found = 0;
+        long totalHops = 0;
+        for (int i = 0; i < queries; i++) {
+            long from = 1 + random.nextInt(members);
+            long to = 1 + random.nextInt(members);
+            long started = System.nanoTime();
+            var path = finder.shortestPath(from, to, 12);
+            nanos[i] = System.nanoTime() - started;
+            if (path.isPresent()) {
+                found++;
+                totalHops += path.get().size();
+            }
+        }
+        if (!report) {
+            return;
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%d queries, %d connected within 12 hops (mean %.1f hops)%n",
+                queries, found, found == 0 ? 0.0 : (double) totalHops / found);
+        System.out.printf("Latency: p50 %d us, p90 %d us, p99 %d us, max %d us%n",
+                nanos[queries / 2] / 1000, nanos[queries * 9 / 10] / 1000, nanos[queries * 99 / 100] / 1000,
+                nanos[queries - 1] / 1000);
+    }
+
+    /**
+     * Founding couples, then generations of children who marry within the samaj and have children of their own
+     */
+    private static List<KinshipGraph.Edge> syntheticSamaj(int members, Random random) {
+        List<KinshipGraph.Edge> edges = new ArrayList<>();
+        List<long[]> couples = new ArrayList<>();
+        long nextUserId = 1;
+        for (int i = 0; i < Math.max(1, members / 50) && nextUserId < members; i++) {
+            long husband = nextUserId++;
+            long wife = nextUserId++;
+            relate(edges, husband, wife, RelationshipType.WIFE, RelationshipType.HUSBAND, 0);
+            couples.add(new long[]{husband, wife});
+        }
+
+        while (nextUserId <= members && !couples.isEmpty()) {
+            List<Long> sons = new ArrayList<>();
+            List<Long> daughters = new ArrayList<>();
+            for (long[] couple : couples) {
+                List<Long> brothers = new ArrayList<>();
+                List<Long> sisters = new ArrayList<>();
+                int children = 1 + random.nextInt(4);
+                for (int c = 0; c < children && nextUserId <= members; c++) {
+                    long child = nextUserId++;
+                    boolean son = random.nextBoolean();
+                    RelationshipType childType = son ? RelationshipType.SON : RelationshipType.DAUGHTER;
+                    relate(edges, couple[0], child, childType, RelationshipType.FATHER, 1);
+                    relate(edges, couple[1], child, childType, RelationshipType.MOTHER, 1);
+                    RelationshipType siblingType = son ? RelationshipType.BROTHER : RelationshipType.SISTER;
+                    for (long brother : brothers) {
+                        relate(edges, brother, child, siblingType, RelationshipType.BROTHER, 0);
+                    }
+                    for (long sister : sisters) {
+                        relate(edges, sister, child, siblingType, RelationshipType.SISTER, 0);
+                    }
+                    (son ? brothers : sisters).add(child);
+                    (son ? sons : daughters).add(child);
+                }
+            }
+
+            // Pair the new generation up across families
+            Collections.shuffle(daughters, random);
+            couples = new ArrayList<>();
+            for (int i = 0; i < Math.min(sons.size(), daughters.size()); i++) {
+                relate(edges, sons.get(i), daughters.get(i), RelationshipType.WIFE, RelationshipType.HUSBAND, 0);
+                couples.add(new long[]{sons.get(i), daughters.get(i)});
+            }
+        }
+        return edges;
+    }
+
+    // Adds userId -> relatedUserId as type and the reverse edge
+    private static void relate(List<KinshipGraph.Edge> edges, long userId, long relatedUserId,
+                               RelationshipType type, RelationshipType reverse, int generationLevel) {
+        edges.add(new KinshipGraph.Edge(edges.size() + 1, userId, relatedUserId, type,
+                type.getDefaultRelationshipSide(), generationLevel));
+        edges.add(new KinshipGraph.Edge(edges.size() + 1, relatedUserId, userId, reverse,
+                reverse.getDefaultRelationshipSide(), -generationLevel));
+    }
+}
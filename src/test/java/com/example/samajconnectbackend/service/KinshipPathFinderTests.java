@@ -0,0 +1,74 @@
+package com.example.samajconnectbackend.service;
+
+import com.example.samajconnectbackend.entity.RelationshipType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KinshipPathFinderTests {
+
+    private final KinshipGraph graph = KinshipGraph.of(family());
+
+    private final KinshipPathFinder finder = new KinshipPathFinder(userId -> graph);
+
+    @Test
+    void findsTheShortestChainOfRelationships() {
+        List<KinshipPathFinder.Step> path = finder.shortestPath(5, 4, 6).orElseThrow();
+
+        assertEquals(List.of(2L, 3L, 4L), path.stream().map(KinshipPathFinder.Step::getUserId).toList());
+        assertEquals(List.of(RelationshipType.HUSBAND, RelationshipType.BROTHER, RelationshipType.SON),
+                path.stream().map(KinshipPathFinder.Step::getRelationshipType).toList());
+    }
+
+    @Test
+    void directRelativesAreOneStepApart() {
+        List<KinshipPathFinder.Step> path = finder.shortestPath(4, 3, 6).orElseThrow();
+
+        assertEquals(1, path.size());
+        assertEquals(RelationshipType.FATHER, path.get(0).getRelationshipType());
+    }
+
+    @Test
+    void aUserIsZeroStepsFromThemselves() {
+        assertEquals(Optional.of(List.of()), finder.shortestPath(2, 2, 6));
+    }
+
+    @Test
+    void pathsLongerThanTheDepthLimitAreNotFound() {
+        assertTrue(finder.shortestPath(5, 4, 2).isEmpty());
+        assertTrue(finder.shortestPath(5, 4, 3).isPresent());
+    }
+
+    @Test
+    void unrelatedUsersHaveNoPath() {
+        assertTrue(finder.shortestPath(1, 6, 12).isEmpty());
+    }
+
+    // 1 is the father of 2 and 3; 4 is the son of 3; 5 is married to 2; 6 is unrelated
+    private static List<KinshipGraph.Edge> family() {
+        List<KinshipGraph.Edge> edges = new ArrayList<>();
+        relate(edges, 1, 2, RelationshipType.SON, RelationshipType.FATHER);
+        relate(edges, 1, 3, RelationshipType.SON, RelationshipType.FATHER);
+        relate(edges, 2, 3, RelationshipType.BROTHER, RelationshipType.BROTHER);
+        relate(edges, 3, 4, RelationshipType.SON, RelationshipType.FATHER);
+        relate(edges, 2, 5, RelationshipType.WIFE, RelationshipType.HUSBAND);
+        return edges;
+    }
+
+    // Both directions: related user is the user's type, and the user is the related user's reverse
+    private static void relate(List<KinshipGraph.Edge> edges, long userId, long relatedUserId,
+                               RelationshipType type, RelationshipType reverse) {
+        edges.add(edge(edges.size() + 1, userId, relatedUserId, type));
+        edges.add(edge(edges.size() + 1, relatedUserId, userId, reverse));
+    }
+
+    private static KinshipGraph.Edge edge(long id, long userId, long relatedUserId, RelationshipType type) {
+        return new KinshipGraph.Edge(id, userId, relatedUserId, type, type.getDefaultRelationshipSide(),
+                type.getDefaultGenerationLevel());
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.samajconnectbackend.service;
+
+import com.example.samajconnectbackend.entity.RelationshipSide;
+import com.example.samajconnectbackend.entity.RelationshipType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RelationshipInferenceTests {
+
+    @Test
+    void compositionFollowsTheSideOfTheFirstRelationship() {
+        assertEquals(RelationshipType.PATERNAL_UNCLE,
+                RelationshipInference.compose(RelationshipType.FATHER, RelationshipType.BROTHER));
+        assertEquals(RelationshipType.MATERNAL_GRANDMOTHER,
+                RelationshipInference.compose(RelationshipType.MOTHER, RelationshipType.MOTHER));
+        assertEquals(RelationshipType.MATERNAL_COUSIN_SISTER,
+                RelationshipInference.compose(RelationshipType.MATERNAL_AUNT, RelationshipType.DAUGHTER));
+        // A father's wife may be a mother or a stepmother
+        assertNull(RelationshipInference.compose(RelationshipType.FATHER, RelationshipType.WIFE));
+    }
+
+    @Test
+    void grandparentsUnclesAndCousinsAreInferredWithTheirSideAndGeneration() {
+        List<RelationshipInference.Inferred> inferred = RelationshipInference.inferFor(6, userId -> family(List.of()));
+
+        assertEquals(List.of("1:PATERNAL_GRANDFATHER", "2:PATERNAL_GRANDMOTHER", "4:PATERNAL_UNCLE",
+                "7:PATERNAL_COUSIN_BROTHER"), describe(inferred));
+        RelationshipInference.Inferred cousin = inferred.get(3);
+        assertEquals(4L, cousin.getViaUserId());
+        assertEquals(RelationshipSide.PATERNAL, cousin.getRelationshipSide());
+        assertEquals(0, cousin.getGenerationLevel());
+        assertEquals(-2, inferred.get(0).getGenerationLevel());
+    }
+
+    @Test
+    void inLawsAndGrandchildrenAreInferred() {
+        KinshipGraph graph = family(List.of());
+
+        assertEquals(List.of("1:FATHER_IN_LAW", "2:MOTHER_IN_LAW", "4:BROTHER_IN_LAW"),
+                describe(RelationshipInference.inferFor(5, userId -> graph)));
+        assertEquals(List.of("5:DAUGHTER_IN_LAW", "6:GRANDSON", "7:GRANDSON"),
+                describe(RelationshipInference.inferFor(1, userId -> graph)));
+    }
+
+    @Test
+    void existingRelationshipsAreNotInferredAgain() {
+        List<KinshipGraph.Edge> extra = new ArrayList<>();
+        relate(extra, 6, 4, RelationshipType.PATERNAL_UNCLE, RelationshipType.NEPHEW);
+        KinshipGraph graph = family(extra);
+
+        List<String> inferred = describe(RelationshipInference.inferFor(6, userId -> graph));
+
+        assertEquals(List.of("1:PATERNAL_GRANDFATHER", "2:PATERNAL_GRANDMOTHER", "7:PATERNAL_COUSIN_BROTHER"), inferred);
+    }
+
+    @Test
+    void usersWithoutRelationshipsHaveNoInferences() {
+        assertTrue(RelationshipInference.inferFor(99, userId -> family(List.of())).isEmpty());
+    }
+
+    // 1 and 2 are married with sons 3 and 4; 3 is married to 5 and their son is 6; 4's son is 7
+    private static KinshipGraph family(List<KinshipGraph.Edge> extra) {
+        List<KinshipGraph.Edge> edges = new ArrayList<>();
+        relate(edges, 1, 2, RelationshipType.WIFE, RelationshipType.HUSBAND);
+        for (long son : new long[]{3, 4}) {
+            relate(edges, 1, son, RelationshipType.SON, RelationshipType.FATHER);
+            relate(edges, 2, son, RelationshipType.SON, RelationshipType.MOTHER);
+        }
+        relate(edges, 3, 4, RelationshipType.BROTHER, RelationshipType.BROTHER);
+        relate(edges, 3, 5, RelationshipType.WIFE, RelationshipType.HUSBAND);
+        relate(edges, 3, 6, RelationshipType.SON, RelationshipType.FATHER);
+        relate(edges, 5, 6, RelationshipType.SON, RelationshipType.MOTHER);
+        relate(edges, 4, 7, RelationshipType.SON, RelationshipType.FATHER);
+        for (KinshipGraph.Edge edge : extra) {
+            edges.add(new KinshipGraph.Edge(edges.size() + 1, edge.getUserId(), edge.getRelatedUserId(),
+                    edge.getRelationshipType(), edge.getRelationshipSide(), edge.getGenerationLevel()));
+        }
+        return KinshipGraph.of(edges);
+    }
+
+    // Adds userId -> relatedUserId as type and the reverse edge
+    private static void relate(List<KinshipGraph.Edge> edges, long userId, long relatedUserId,
+                               RelationshipType type, RelationshipType reverse) {
+        edges.add(new KinshipGraph.Edge(edges.size() + 1, userId, relatedUserId, type,
+                type.getDefaultRelationshipSide(), type.getDefaultGenerationLevel()));
+        edges.add(new KinshipGraph.Edge(edges.size() + 1, relatedUserId, userId, reverse,
+                reverse.getDefaultRelationshipSide(), reverse.getDefaultGenerationLevel()));
+    }
+
+    private static List<String> describe(List<RelationshipInference.Inferred> inferred) {
+        return inferred.stream()
+                .sorted((a, b) -> Long.compare(a.getRelatedUserId(), b.getRelatedUserId()))
+                .map(relative -> relative.getRelatedUserId() + ":" + relative.getRelationshipType())
+                .toList();
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.samajconnectbackend.service;
+
+import com.example.samajconnectbackend.dto.SamajMemberDto;
+import com.example.samajconnectbackend.entity.RelationshipRequest;
+import com.example.samajconnectbackend.entity.RelationshipType;
+import com.example.samajconnectbackend.entity.Samaj;
+import com.example.samajconnectbackend.entity.User;
+import com.example.samajconnectbackend.entity.UserRelationship;
+import com.example.samajconnectbackend.repository.RelationshipRequestRepository;
+import com.example.samajconnectbackend.repository.SamajRepository;
+import com.example.samajconnectbackend.repository.UserRelationshipRepository;
+import com.example.samajconnectbackend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Page latency of member relationship statuses: the per-member lookups searchSamajMembers used to make
+ * (up to three queries per member) against {@link RelationshipStatusResolver#resolve}. Prints timings and
+ * checks both give the same statuses. Needs the database in application-integration.properties; run with
+ * {@code mvn -P integration-tests test -Dtest=RelationshipStatusBenchmarkTests}.
+ */
+@Tag("integration")
+@ActiveProfiles("integration")
+@SpringBootTest
+class RelationshipStatusBenchmarkTests {
+
+    private static final int WARMUP_PAGES = 50;
+    private static final int MEASURED_PAGES = 200;
+
+    @Autowired
+    private RelationshipStatusResolver relationshipStatusResolver;
+
+    @Autowired
+    private SamajRepository samajRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserRelationshipRepository relationshipRepository;
+
+    @Autowired
+    private RelationshipRequestRepository requestRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<Long> samajIds = new ArrayList<>();
+    private final List<Long> userIds = new ArrayList<>();
+    private final List<Long> relationshipIds = new ArrayList<>();
+    private final List<Long> requestIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            requestRepository.deleteAllByIdInBatch(requestIds);
+            relationshipRepository.deleteAllByIdInBatch(relationshipIds);
+            userRepository.deleteAllByIdInBatch(userIds);
+            samajRepository.deleteAllByIdInBatch(samajIds);
+        });
+    }
+
+    @Test
+    void comparePageLatency() {
+        for (int pageSize : new int[]{20, 100}) {
+            List<Long> ids = createPage(pageSize);
+            Long currentUserId = ids.get(0);
+            List<Long> page = ids.subList(1, ids.size());
+
+            Map<Long, SamajMemberDto.RelationshipStatus> perMember = inTransaction(() -> lookUpEach(currentUserId, page));
+            Map<Long, SamajMemberDto.RelationshipStatus> resolved = inTransaction(
+                    () -> relationshipStatusResolver.resolve(currentUserId, page));
+            assertEquals(perMember, resolved);
+
+            report(pageSize, "per-member lookups", () -> lookUpEach(currentUserId, page));
+            report(pageSize, "resolve", () -> relationshipStatusResolver.resolve(currentUserId, page));
+        }
+    }
+
+    /**
+     * The lookups searchSamajMembers made before statuses were resolved per page
+     */
+    private Map<Long, SamajMemberDto.RelationshipStatus> lookUpEach(Long currentUserId, List<Long> page) {
+        Map<Long, SamajMemberDto.RelationshipStatus> statuses = new HashMap<>();
+        for (Long userId : page) {
+            SamajMemberDto.RelationshipStatus status;
+            if (userRepository.hasRelationship(currentUserId, userId)) {
+                status = SamajMemberDto.RelationshipStatus.ALREADY_RELATED;
+            } else if (userRepository.hasSentRequestTo(currentUserId, userId)) {
+                status = SamajMemberDto.RelationshipStatus.REQUEST_SENT;
+            } else if (userRepository.hasReceivedRequestFrom(currentUserId, userId)) {
+                status = SamajMemberDto.RelationshipStatus.REQUEST_RECEIVED;
+            } else {
+                status = SamajMemberDto.RelationshipStatus.AVAILABLE;
+            }
+            statuses.put(userId, status);
+        }
+        return statuses;
+    }
+
+    private void report(int pageSize, String label, Supplier<?> pageLookup) {
+        for (int i = 0; i < WARMUP_PAGES; i++) {
+            inTransaction(pageLookup);
+        }
+        long[] nanos = new long[MEASURED_PAGES];
+        for (int i = 0; i < MEASURED_PAGES; i++) {
+            long started = System.nanoTime();
+            inTransaction(pageLookup);
+            nanos[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(nanos);
+        System.out.printf("Page of %d, %s: median %.2f ms, p95 %.2f ms, max %.2f ms%n", pageSize, label,
+                nanos[nanos.length / 2] / 1e6, nanos[(int) (nanos.length * 0.95)] / 1e6, nanos[nanos.length - 1] / 1e6);
+    }
+
+    private <T> T inTransaction(Supplier<T> work) {
+        return transactionTemplate.execute(status -> work.get());
+    }
+
+    /**
+     * A samaj with a current user (first id) and pageSize members: a quarter related to the current user, a
+     * quarter with a request from them, a quarter with a request to them and the rest unrelated
+     */
+    private List<Long> createPage(int pageSize) {
+        return inTransaction(() -> {
+            String suffix = UUID.randomUUID().toString();
+            Samaj samaj = new Samaj();
+            samaj.setName("Status benchmark " + suffix);
+            samaj = samajRepository.save(samaj);
+            samajIds.add(samaj.getId());
+
+            List<Long> ids = new ArrayList<>();
+            User current = userRepository.save(newUser(samaj, "current-" + suffix));
+            ids.add(current.getId());
+            for (int i = 0; i < pageSize; i++) {
+                User member = userRepository.save(newUser(samaj, "member-" + i + "-" + suffix));
+                ids.add(member.getId());
+                switch (i % 4) {
+                    case 0 -> relationshipIds.add(relationshipRepository.save(
+                            newRelationship(current.getId(), member.getId())).getId());
+                    case 1 -> requestIds.add(requestRepository.save(
+                            newRequest(current.getId(), member.getId())).getId());
+                    case 2 -> requestIds.add(requestRepository.save(
+                            newRequest(member.getId(), current.getId())).getId());
+                    default -> {
+                    }
+                }
+            }
+            userIds.addAll(ids);
+            return ids;
+        });
+    }
+
+    private static User newUser(Samaj samaj, String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@example.com");
+        user.setPassword("not-used");
+        user.setSamaj(samaj);
+        return user;
+    }
+
+    private static UserRelationship newRelationship(Long userId, Long relatedUserId) {
+        UserRelationship relationship = new UserRelationship();
+        relationship.setUserId(userId);
+        relationship.setRelatedUserId(relatedUserId);
+        relationship.setRelationshipType(RelationshipType.BROTHER);
+        relationship.setRelationshipSide(RelationshipType.BROTHER.getDefaultRelationshipSide());
+        relationship.setGenerationLevel(RelationshipType.BROTHER.getDefaultGenerationLevel());
+        relationship.setCreatedBy(userId);
+        return relationship;
+    }
+
+    private static RelationshipRequest newRequest(Long requesterUserId, Long targetUserId) {
+        RelationshipRequest request = new RelationshipRequest();
+        request.setRequesterUserId(requesterUserId);
+        request.setTargetUserId(targetUserId);
+        request.setRelationshipType(RelationshipType.BROTHER);
+        request.setRelationshipSide(RelationshipType.BROTHER.getDefaultRelationshipSide());
+        request.setGenerationLevel(RelationshipType.BROTHER.getDefaultGenerationLevel());
+        return request;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.samajconnectbackend.service;
+
+import com.example.samajconnectbackend.dto.RelationshipContext;
+import com.example.samajconnectbackend.entity.RelationshipType;
+import com.example.samajconnectbackend.entity.User;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Cost of a reverse-relationship lookup against the branching it replaced. Not part of the test suite; run
+ * the main method from the IDE, optionally passing the number of lookups per round (default 10000000).
+ */
+public class ReverseRelationshipBenchmark {
+
+    public static void main(String[] args) {
+        int lookups = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        Random random = new Random(42);
+
+        // A fixed pool of inputs, so both sides see the same mix of types, genders and contexts
+        RelationshipType[] types = RelationshipType.values();
+        List<RelationshipContext> contexts = ReverseRelationshipTableTests.contexts();
+        int poolSize = 4096;
+        RelationshipType[] poolTypes = new RelationshipType[poolSize];
+        User[] poolRequesters = new User[poolSize];
+        User[] poolTargets = new User[poolSize];
+        RelationshipContext[] poolContexts = new RelationshipContext[poolSize];
+        for (int i = 0; i < poolSize; i++) {
+            poolTypes[i] = types[random.nextInt(types.length)];
+            poolRequesters[i] = ReverseRelationshipTableTests.user(pick(ReverseRelationshipTableTests.GENDERS, random));
+            poolTargets[i] = ReverseRelationshipTableTests.user(pick(ReverseRelationshipTableTests.GENDERS, random));
+            poolContexts[i] = pick(contexts, random);
+        }
+
+        // Warm up, then measure
+        for (int round = 0; round < 5; round++) {
+            boolean report = round == 4;
+            long started = System.nanoTime();
+            int sink = 0;
+            for (int i = 0; i < lookups; i++) {
+                int k = i & (poolSize - 1);
+                sink += ReverseRelationshipTableTests.legacyReverseOf(poolTypes[k], poolRequesters[k], poolContexts[k]).ordinal();
+            }
+            long branching = System.nanoTime() - started;
+
+            started = System.nanoTime();
+            for (int i = 0; i < lookups; i++) {
+                int k = i & (poolSize - 1);
+                sink += ReverseRelationshipTable.reverseOf(poolTypes[k], poolRequesters[k], poolTargets[k], poolContexts[k]).ordinal();
+            }
+            long table = System.nanoTime() - started;
+
+            if (report) {
+                System.out.printf("Branching: %.1f ns/lookup, table: %.1f ns/lookup (checksum %d)%n",
+                        (double) branching / lookups, (double) table / lookups, sink);
+            }
+        }
+    }
+
+    private static <T> T pick(List<T> values, Random random) {
+        return values.get(random.nextInt(values.size()));
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.samajconnectbackend.service;
+
+import com.example.samajconnectbackend.dto.RelationshipContext;
+import com.example.samajconnectbackend.entity.RelationshipType;
+import com.example.samajconnectbackend.entity.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReverseRelationshipTableTests {
+
+    // Spellings seen in users.gender, plus missing and unrecognised values
+    static final List<String> GENDERS = Arrays.asList(null, "", "MALE", "Male", "M", "m", "FEMALE", "female",
+            "F", "f", "OTHER");
+
+    @Test
+    void everyInputMatchesTheRulesTheTableReplaced() {
+        int checked = 0;
+        for (RelationshipType type : RelationshipType.values()) {
+            for (String requesterGender : GENDERS) {
+                for (String targetGender : GENDERS) {
+                    for (RelationshipContext context : contexts()) {
+                        User requester = user(requesterGender);
+                        User target = user(targetGender);
+                        assertEquals(legacyReverseOf(type, requester, context),
+                                ReverseRelationshipTable.reverseOf(type, requester, target, context),
+                                () -> type + " from a " + requesterGender + " requester to a " + targetGender
+                                        + " target with " + describe(context));
+                        checked++;
+                    }
+                }
+            }
+        }
+        assertEquals(RelationshipType.values().length * GENDERS.size() * GENDERS.size() * contexts().size(), checked);
+    }
+
+    @Test
+    void reverseDependsOnTheRequestersGender() {
+        assertEquals(RelationshipType.DAUGHTER, ReverseRelationshipTable.reverseOf(RelationshipType.FATHER,
+                user("F"), user("M"), new RelationshipContext()));
+        assertEquals(RelationshipType.SON, ReverseRelationshipTable.reverseOf(RelationshipType.MOTHER,
+                user("male"), user("F"), new RelationshipContext()));
+        assertEquals(RelationshipType.WIFE, ReverseRelationshipTable.reverseOf(RelationshipType.HUSBAND,
+                user(null), user(null), null));
+    }
+
+    @Test
+    void grandparentAndUncleSidesFollowTheLineage() {
+        assertEquals(RelationshipType.MATERNAL_GRANDFATHER, ReverseRelationshipTable.reverseOf(RelationshipType.GRANDSON,
+                user("M"), user("M"), new RelationshipContext("MATERNAL")));
+        assertEquals(RelationshipType.PATERNAL_AUNT, ReverseRelationshipTable.reverseOf(RelationshipType.NIECE,
+                user("F"), user("F"), new RelationshipContext(user("MALE"))));
+        assertEquals(RelationshipType.MATERNAL_UNCLE, ReverseRelationshipTable.reverseOf(RelationshipType.NEPHEW,
+                user("M"), user("M"), new RelationshipContext(user("FEMALE"))));
+        // Without any lineage the paternal side is assumed
+        assertEquals(RelationshipType.PATERNAL_GRANDMOTHER, ReverseRelationshipTable.reverseOf(
+                RelationshipType.GRANDDAUGHTER, user("F"), user("M"), null));
+    }
+
+    /**
+     * Every way a context can name, imply or leave out the lineage
+     */
+    static List<RelationshipContext> contexts() {
+        List<RelationshipContext> contexts = new ArrayList<>();
+        contexts.add(null);
+        for (String lineage : Arrays.asList(null, "PATERNAL", "paternal", "MATERNAL", "Maternal", "DIRECT")) {
+            contexts.add(new RelationshipContext(lineage));
+            for (String intermediateGender : GENDERS) {
+                RelationshipContext context = new RelationshipContext(lineage);
+                context.setIntermediateRelative(user(intermediateGender));
+                contexts.add(context);
+            }
+        }
+        return contexts;
+    }
+
+    static User user(String gender) {
+        User user = new User();
+        user.setGender(gender);
+        return user;
+    }
+
+    private static String describe(RelationshipContext context) {
+        if (context == null) {
+            return "no context";
+        }
+        return "lineage " + context.getLineage() + " and intermediate relative "
+                + (context.getIntermediateRelative() == null ? "none" : context.getIntermediateRelative().getGender());
+    }
+
+    /**
+     * FamilyTreeService.getReverseRelationshipTypeEnhanced with determineGrandparentLineage and
+     * determineUncleAuntLineage as they were before the table, without their logging
+     */
+    static RelationshipType legacyReverseOf(RelationshipType originalType, User requesterUser,
+                                            RelationshipContext context) {
+        boolean isRequesterMale = "MALE".equalsIgnoreCase(requesterUser.getGender()) || "M".equalsIgnoreCase(requesterUser.getGender());
+
+        return switch (originalType) {
+            case FATHER, MOTHER -> isRequesterMale ? RelationshipType.SON : RelationshipType.DAUGHTER;
+            case SON, DAUGHTER -> isRequesterMale ? RelationshipType.FATHER : RelationshipType.MOTHER;
+            case HUSBAND -> RelationshipType.WIFE;
+            case WIFE -> RelationshipType.HUSBAND;
+            case BROTHER, SISTER -> isRequesterMale ? RelationshipType.BROTHER : RelationshipType.SISTER;
+            case PATERNAL_GRANDFATHER, PATERNAL_GRANDMOTHER, MATERNAL_GRANDFATHER, MATERNAL_GRANDMOTHER ->
+                    isRequesterMale ? RelationshipType.GRANDSON : RelationshipType.GRANDDAUGHTER;
+            case GRANDSON, GRANDDAUGHTER -> legacyGrandparentLineage(context, isRequesterMale);
+            case PATERNAL_UNCLE, PATERNAL_AUNT, MATERNAL_UNCLE, MATERNAL_AUNT ->
+                    isRequesterMale ? RelationshipType.NEPHEW : RelationshipType.NIECE;
+            case NEPHEW -> legacyUncleAuntLineage(context, true);
+            case NIECE -> legacyUncleAuntLineage(context, false);
+            case PATERNAL_COUSIN_BROTHER, PATERNAL_COUSIN_SISTER ->
+                    isRequesterMale ? RelationshipType.PATERNAL_COUSIN_BROTHER : RelationshipType.PATERNAL_COUSIN_SISTER;
+            case MATERNAL_COUSIN_BROTHER, MATERNAL_COUSIN_SISTER ->
+                    isRequesterMale ? RelationshipType.MATERNAL_COUSIN_BROTHER : RelationshipType.MATERNAL_COUSIN_SISTER;
+            case FATHER_IN_LAW -> RelationshipType.SON_IN_LAW;
+            case MOTHER_IN_LAW -> RelationshipType.DAUGHTER_IN_LAW;
+            case BROTHER_IN_LAW -> RelationshipType.SISTER_IN_LAW;
+            case SISTER_IN_LAW -> RelationshipType.BROTHER_IN_LAW;
+            case SON_IN_LAW -> RelationshipType.FATHER_IN_LAW;
+            case DAUGHTER_IN_LAW -> RelationshipType.MOTHER_IN_LAW;
+            case GREAT_GRANDFATHER, GREAT_GRANDMOTHER ->
+                    isRequesterMale ? RelationshipType.GREAT_GRANDSON : RelationshipType.GREAT_GRANDDAUGHTER;
+            case GREAT_GRANDSON -> RelationshipType.GREAT_GRANDFATHER;
+            case GREAT_GRANDDAUGHTER -> RelationshipType.GREAT_GRANDMOTHER;
+            case STEP_FATHER, STEP_MOTHER -> isRequesterMale ? RelationshipType.STEP_SON : RelationshipType.STEP_DAUGHTER;
+            case STEP_BROTHER, STEP_SISTER -> isRequesterMale ? RelationshipType.STEP_BROTHER : RelationshipType.STEP_SISTER;
+            case STEP_SON -> RelationshipType.STEP_FATHER;
+            case STEP_DAUGHTER -> RelationshipType.STEP_MOTHER;
+        };
+    }
+
+    private static RelationshipType legacyGrandparentLineage(RelationshipContext context, boolean isRequesterMale) {
+        if (context != null && context.getLineage() != null) {
+            if ("PATERNAL".equalsIgnoreCase(context.getLineage())) {
+                return isRequesterMale ? RelationshipType.PATERNAL_GRANDFATHER : RelationshipType.PATERNAL_GRANDMOTHER;
+            } else if ("MATERNAL".equalsIgnoreCase(context.getLineage())) {
+                return isRequesterMale ? RelationshipType.MATERNAL_GRANDFATHER : RelationshipType.MATERNAL_GRANDMOTHER;
+            }
+        }
+        if (context != null && context.getIntermediateRelative() != null) {
+            User parentUser = context.getIntermediateRelative();
+            boolean isParentMale = "MALE".equalsIgnoreCase(parentUser.getGender()) || "M".equalsIgnoreCase(parentUser.getGender());
+            if (isParentMale) {
+                return isRequesterMale ? RelationshipType.PATERNAL_GRANDFATHER : RelationshipType.PATERNAL_GRANDMOTHER;
+            } else {
+                return isRequesterMale ? RelationshipType.MATERNAL_GRANDFATHER : RelationshipType.MATERNAL_GRANDMOTHER;
+            }
+        }
+        return isRequesterMale ? RelationshipType.PATERNAL_GRANDFATHER : RelationshipType.PATERNAL_GRANDMOTHER;
+    }
+
+    private static RelationshipType legacyUncleAuntLineage(RelationshipContext context, boolean isNephew) {
+        if (context != null && context.getLineage() != null) {
+            if ("PATERNAL".equalsIgnoreCase(context.getLineage())) {
+                return isNephew ? RelationshipType.PATERNAL_UNCLE : RelationshipType.PATERNAL_AUNT;
+            } else if ("MATERNAL".equalsIgnoreCase(context.getLineage())) {
+                return isNephew ? RelationshipType.MATERNAL_UNCLE : RelationshipType.MATERNAL_AUNT;
+            }
+        }
+        if (context != null && context.getIntermediateRelative() != null) {
+            User parentUser = context.getIntermediateRelative();
+            boolean isParentMale = "MALE".equalsIgnoreCase(parentUser.getGender()) || "M".equalsIgnoreCase(parentUser.getGender());
+            if (isParentMale) {
+                return isNephew ? RelationshipType.PATERNAL_UNCLE : RelationshipType.PATERNAL_AUNT;
+            } else {
+                return isNephew ? RelationshipType.MATERNAL_UNCLE : RelationshipType.MATERNAL_AUNT;
+            }
+        }
+        return isNephew ? RelationshipType.PATERNAL_UNCLE : RelationshipType.PATERNAL_AUNT;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.samajconnectbackend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TokenBucketTests {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void burstIsServedWithoutWaiting() {
+        TokenBucket bucket = new TokenBucket(5, 3, now::get);
+
+        assertEquals(0, bucket.reserve());
+        assertEquals(0, bucket.reserve());
+        assertEquals(0, bucket.reserve());
+    }
+
+    @Test
+    void reservationsBeyondTheBurstWaitInTurn() {
+        TokenBucket bucket = new TokenBucket(5, 1, now::get);
+
+        assertEquals(0, bucket.reserve());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(200), bucket.reserve());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(400), bucket.reserve());
+    }
+
+    @Test
+    void tokensRefillOverTimeUpToTheBurst() {
+        TokenBucket bucket = new TokenBucket(5, 2, now::get);
+        bucket.reserve();
+        bucket.reserve();
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+        assertEquals(0, bucket.reserve());
+        assertEquals(0, bucket.reserve());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(200), bucket.reserve());
+    }
+
+    @Test
+    void rejectsNonPositiveRates() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1, now::get));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1, 0, now::get));
+    }
+}